@@ -0,0 +1,43 @@
+package org.example.benchmark;
+
+import org.example.BehavioralPatternsApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without a web server and with quiet logging, for benchmarks
+ * that need the real beans and the embedded H2 database. Properties are passed as
+ * command-line arguments so they win over application.properties.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return start(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Starts the application with its web server on a free port ({@code local.server.port}).
+     */
+    static ConfigurableApplicationContext startServer(String... properties) {
+        List<String> all = new ArrayList<>(List.of("server.port=0"));
+        all.addAll(List.of(properties));
+        return start(WebApplicationType.SERVLET, all.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--spring.jpa.show-sql=false", "--logging.level.org.example=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(BehavioralPatternsApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator for placing orders, run once with one transaction per command and
+ * once with the group-commit command bus. Each run creates the orders up front, then a fixed
+ * number of threads place them as fast as they can through {@link OrderService#placeOrder}.
+ * Prints throughput and the p50/p99/max latency seen by callers.
+ *
+ * Run with: java -cp target/benchmarks.jar org.example.benchmark.CommandBusLoadGenerator [orders threads]
+ */
+public class CommandBusLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        for (boolean busEnabled : new boolean[]{false, true}) {
+            run(busEnabled, orders, threads);
+        }
+    }
+
+    private static void run(boolean busEnabled, int orders, int threads) throws Exception {
+        try (ConfigurableApplicationContext context =
+                     BenchmarkApplication.start("orders.command-bus.enabled=" + busEnabled)) {
+            OrderService orderService = context.getBean(OrderService.class);
+            context.getBean(ProductRepository.class).save(new Product("load-product", Money.of("1.00"), orders));
+            List<Long> orderIds = new ArrayList<>(orders);
+            for (int i = 0; i < orders; i++) {
+                Order order = new Order("load-" + i, Money.ZERO);
+                order.addItem(new OrderItem("load-product", 1, Money.ZERO));
+                orderIds.add(orderService.createOrder(order).getId());
+            }
+
+            long[] latencies = new long[orders];
+            AtomicInteger next = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < orders; i = next.getAndIncrement()) {
+                        long began = System.nanoTime();
+                        orderService.placeOrder(orderIds.get(i));
+                        latencies[i] = System.nanoTime() - began;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            pool.shutdown();
+
+            Arrays.sort(latencies);
+            System.out.printf("%-22s %6d orders, %3d threads: %8.0f ops/s, p50 %6.2f ms, p99 %6.2f ms, max %6.2f ms%n",
+                    busEnabled ? "group-commit bus" : "transaction per order", orders, threads,
+                    orders / (elapsed / 1e9), millis(latencies, 0.50), millis(latencies, 0.99),
+                    latencies[orders - 1] / 1e6);
+        }
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.benchmark;
+
+import org.example.inventory.HotStockCounters;
+import org.example.model.Money;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for a single flash-sale product: every thread takes one unit at a time,
+ * either with the conditional UPDATE on the product row (each take is its own transaction)
+ * or from the hot-product sharded counters. Runs with 1, 2, 4, ... threads, doubling up to
+ * the number of cores, so the output shows how each approach scales. The row-lock variant
+ * flattens out because every take queues on the same row; the counters keep scaling.
+ *
+ * The thread sweep needs its own launcher; other JMH options are passed through:
+ *   java -cp target/benchmarks.jar org.example.benchmark.HotStockBenchmark [-f 1 -wi 2 ...]
+ * Run through JMH's own main (mvn exec:exec) it measures a single thread only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HotStockBenchmark {
+
+    private static final int STOCK = Integer.MAX_VALUE / 2;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private HotStockCounters hotStockCounters;
+    private Long rowProductId;
+    private Long hotProductId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("inventory.hot.allotment=1000000");
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        hotStockCounters = context.getBean(HotStockCounters.class);
+
+        rowProductId = productRepository.save(new Product("bench-row", Money.of("1.0"), STOCK)).getId();
+        Product hot = productRepository.save(new Product("bench-hot", Money.of("1.0"), STOCK));
+        hotStockCounters.enable(hot);
+        hotProductId = hot.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer rowLockTake() {
+        return transactionTemplate.execute(status -> productRepository.decrementStock(rowProductId, 1));
+    }
+
+    @Benchmark
+    public boolean shardedCounterTake() {
+        return hotStockCounters.tryTake(hotProductId, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            new Runner(new OptionsBuilder()
+                    .parent(options)
+                    .include(HotStockBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.controller.InFlightLimitFilter;
+import org.example.model.Money;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model HTTP load generator for /api/orders. Requests are started on a fixed
+ * schedule (constant or Poisson arrivals at {@code --rate} per second) whether or not
+ * earlier ones have answered, and each latency is measured from the time the request
+ * was scheduled to start, not from when it was actually sent. A stalled server therefore
+ * shows up as high latency for every request it delayed instead of as fewer requests,
+ * so the percentiles are free of coordinated omission.
+ * <p>
+ * Traffic is a weighted mix of create, place, pay, cancel and get. Place and cancel work
+ * on orders the run created, pay on orders it placed; when there is no such order yet the
+ * request is not sent and is counted as skipped, so the mix that reaches the server is never
+ * shifted towards creates. Latencies go into one HdrHistogram per operation, and the report
+ * shows throughput, error rate, skipped requests and p50/p90/p99/p99.9/max per operation. Failed
+ * requests (error status, connection failure or the {@value #REQUEST_TIMEOUT_SECONDS} s
+ * timeout) get histograms of their own, also measured from the intended start, so a run
+ * where the server times out shows those waits instead of only the fast answers. Without
+ * {@code --url} the application is started in-process on a free port with the in-memory
+ * H2 database and the {@code --product} with unlimited stock; {@code --virtual-threads=true} starts it
+ * with virtual threads (Java 21+) and {@code --limit-in-flight=true|false} sets
+ * orders.web.limit-in-flight. The report then also shows the most order requests the
+ * server handled at once, next to the most the generator had outstanding.
+ * {@code --read-api=true} sends the gets to the read-side API (/api/read/orders/{id}),
+ * which has its own connections and threads, instead of /api/orders/{id}.
+ *
+ * Run with: java -cp target/benchmarks.jar org.example.benchmark.HttpLoadGenerator
+ *           [--rate=200] [--duration=60s] [--warmup=10s] [--arrivals=poisson|constant]
+ *           [--mix=create:30,place:20,pay:15,cancel:5,get:30] [--url=http://host:port]
+ *           [--product=name] [--virtual-threads=true] [--limit-in-flight=true|false]
+ *           [--read-api=true] [--histograms=dir]
+ */
+public class HttpLoadGenerator {
+
+    private static final String LOAD_PRODUCT = "load-product";
+    private static final int REQUEST_TIMEOUT_SECONDS = 30;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS);
+    private static final int RECENT_ORDERS = 4096;
+
+    private enum Operation {
+        CREATE, PLACE, PAY, CANCEL, GET
+    }
+
+    private final String baseUrl;
+    private final String readUrl;
+    private final String product;
+    private final double rate;
+    private final boolean poisson;
+    private final Map<Operation, Integer> mix;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Random random = new Random();
+
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Recorder> failureLatencies = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errorCauses = new ConcurrentHashMap<>();
+    private final Map<Operation, LongAdder> skipped = new EnumMap<>(Operation.class);
+    private final Queue<Long> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> placed = new ConcurrentLinkedQueue<>();
+    private final AtomicLongArray recent = new AtomicLongArray(RECENT_ORDERS);
+    private final AtomicLong recentCount = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    private HttpLoadGenerator(String baseUrl, String product, double rate, boolean poisson,
+                              Map<Operation, Integer> mix, boolean readApi, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.readUrl = baseUrl + (readApi ? "/api/read/orders" : "/api/orders");
+        this.product = product;
+        this.rate = rate;
+        this.poisson = poisson;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(3));
+            failureLatencies.put(operation, new Recorder(3));
+            skipped.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "200"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        boolean poisson = !"constant".equals(options.getOrDefault("arrivals", "poisson"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix", "create:30,place:20,pay:15,cancel:5,get:30"));
+
+        ConfigurableApplicationContext context = null;
+        String url = options.get("url");
+        String product = options.getOrDefault("product", LOAD_PRODUCT);
+        if (url == null) {
+            context = BenchmarkApplication.startServer("logging.level.org.springframework.web=WARN",
+                    "spring.threads.virtual.enabled=" + options.getOrDefault("virtual-threads", "false"),
+                    "orders.web.limit-in-flight=" + options.getOrDefault("limit-in-flight", ""));
+            context.getBean(ProductRepository.class).save(new Product(product, Money.of("9.99"), Integer.MAX_VALUE / 2));
+            url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            HttpLoadGenerator generator = new HttpLoadGenerator(url, product, rate, poisson, mix,
+                    Boolean.parseBoolean(options.getOrDefault("read-api", "false")), executor);
+            System.out.printf("Driving %s at %.0f requests/s (%s arrivals) for %s after %s warmup%n",
+                    url, rate, poisson ? "Poisson" : "constant", duration, warmup);
+            long measuredNanos = generator.run(warmup, duration);
+            generator.report(measuredNanos, options.get("histograms"));
+            if (context != null) {
+                InFlightLimitFilter limiter = context.getBean(InFlightLimitFilter.class);
+                System.out.printf("%nPeak order requests in flight: %d on the server (%s), %d outstanding at the client%n",
+                        limiter.getPeakInFlight(),
+                        limiter.isLimiting() ? "limited to " + limiter.getLimit() : "not limited",
+                        generator.peakInFlight.get());
+            }
+        } finally {
+            executor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * Issues requests on schedule until the warmup and the measured period are over, then
+     * waits for the ones still in flight.
+     *
+     * @return length of the measured period in nanoseconds
+     */
+    private long run(Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        boolean measuring = false;
+
+        double next = start;
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+            if (!measuring && intended >= measureFrom) {
+                // Drop everything recorded during warmup
+                measuring = true;
+                measureFromNanos = measureFrom;
+                latencies.values().forEach(Recorder::reset);
+                failureLatencies.values().forEach(Recorder::reset);
+                errorCauses.clear();
+                skipped.values().forEach(LongAdder::reset);
+            }
+            send(pick(), intended);
+            next += poisson ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos : meanIntervalNanos;
+        }
+
+        long drainUntil = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(10);
+        }
+        return end - measureFrom;
+    }
+
+    private Operation pick() {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.CREATE;
+    }
+
+    private void send(Operation operation, long intendedNanos) {
+        Long orderId = switch (operation) {
+            case PLACE, CANCEL -> pending.poll();
+            case PAY -> placed.poll();
+            case GET -> recentOrder();
+            case CREATE -> null;
+        };
+        if (orderId == null && operation != Operation.CREATE) {
+            if (intendedNanos >= measureFromNanos) {
+                skipped.get(operation).increment();
+            }
+            return;
+        }
+        HttpRequest request = request(operation, orderId);
+        Operation sent = operation;
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intendedNanos;
+                    inFlight.decrementAndGet();
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        failed(sent, intendedNanos, latency, cause.getClass().getSimpleName());
+                        return;
+                    }
+                    if (response.statusCode() / 100 != 2) {
+                        failed(sent, intendedNanos, latency, "HTTP " + response.statusCode());
+                        return;
+                    }
+                    if (intendedNanos >= measureFromNanos) {
+                        latencies.get(sent).recordValue(latency);
+                    }
+                    afterSuccess(sent, orderId, response.body());
+                });
+    }
+
+    private HttpRequest request(Operation operation, Long orderId) {
+        String orders = baseUrl + "/api/orders";
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        return switch (operation) {
+            case CREATE -> builder.uri(URI.create(orders))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"customerName\":\"load\",\"items\":[{\"productName\":\""
+                            + product + "\",\"quantity\":1,\"price\":0}]}"))
+                    .build();
+            case PLACE -> builder.uri(URI.create(orders + "/" + orderId + "/place"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case CANCEL -> builder.uri(URI.create(orders + "/" + orderId + "/cancel"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case PAY -> builder.uri(URI.create(orders + "/" + orderId + "/pay"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"paymentMethod\":\"creditcard\"}")).build();
+            case GET -> builder.uri(URI.create(readUrl + "/" + orderId)).GET().build();
+        };
+    }
+
+    private void afterSuccess(Operation operation, Long orderId, String body) {
+        switch (operation) {
+            case CREATE -> {
+                try {
+                    long id = objectMapper.readTree(body).path("id").asLong();
+                    pending.add(id);
+                    recent.set((int) (recentCount.getAndIncrement() % RECENT_ORDERS), id);
+                } catch (IOException e) {
+                    errorCauses.computeIfAbsent("Unreadable create response", cause -> new LongAdder()).increment();
+                }
+            }
+            case PLACE -> placed.add(orderId);
+            default -> {
+            }
+        }
+    }
+
+    private void failed(Operation operation, long intendedNanos, long latency, String cause) {
+        if (intendedNanos >= measureFromNanos) {
+            failureLatencies.get(operation).recordValue(latency);
+            errorCauses.computeIfAbsent(operation + " " + cause, key -> new LongAdder()).increment();
+        }
+    }
+
+    private Long recentOrder() {
+        long count = recentCount.get();
+        if (count == 0) {
+            return null;
+        }
+        return recent.get(random.nextInt((int) Math.min(count, RECENT_ORDERS)));
+    }
+
+    private void report(long measuredNanos, String histogramDir) throws IOException {
+        double seconds = measuredNanos / 1e9;
+        Map<Operation, Histogram> failures = new EnumMap<>(Operation.class);
+        failureLatencies.forEach((operation, recorder) -> failures.put(operation, recorder.getIntervalHistogram()));
+
+        Histogram all = new Histogram(3);
+        Histogram allFailed = new Histogram(3);
+        System.out.printf("%n%-8s %9s %9s %7s %9s %10s %9s %9s %9s %9s %9s%n",
+                "op", "ok", "errors", "err%", "skipped", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation).getIntervalHistogram();
+            Histogram failed = failures.get(operation);
+            all.add(histogram);
+            allFailed.add(failed);
+            print(operation.name().toLowerCase(), histogram, failed.getTotalCount(), skipped.get(operation).sum(), seconds);
+            if (histogramDir != null && histogram.getTotalCount() > 0) {
+                write(histogram, new File(histogramDir, operation.name().toLowerCase() + ".hgrm"));
+            }
+            if (histogramDir != null && failed.getTotalCount() > 0) {
+                write(failed, new File(histogramDir, operation.name().toLowerCase() + "-failed.hgrm"));
+            }
+        }
+        print("all", all, allFailed.getTotalCount(),
+                skipped.values().stream().mapToLong(LongAdder::sum).sum(), seconds);
+        if (histogramDir != null) {
+            write(all, new File(histogramDir, "all.hgrm"));
+        }
+        if (histogramDir != null && allFailed.getTotalCount() > 0) {
+            write(allFailed, new File(histogramDir, "all-failed.hgrm"));
+        }
+
+        if (allFailed.getTotalCount() > 0) {
+            System.out.printf("%nFailed requests, latency until the failure was seen:%n%-8s %9s %9s %9s %9s %9s %9s%n",
+                    "op", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (Operation operation : Operation.values()) {
+                printFailed(operation.name().toLowerCase(), failures.get(operation));
+            }
+            printFailed("all", allFailed);
+        }
+        if (!errorCauses.isEmpty()) {
+            System.out.println("\nErrors:");
+            new HashMap<>(errorCauses).entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> System.out.printf("  %-40s %d%n", entry.getKey(), entry.getValue().sum()));
+        }
+    }
+
+    private static void print(String name, Histogram histogram, long failures, long skipped, double seconds) {
+        long ok = histogram.getTotalCount();
+        double errorRate = ok + failures == 0 ? 0 : 100.0 * failures / (ok + failures);
+        System.out.printf("%-8s %9d %9d %6.2f%% %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, ok, failures, errorRate,
+                skipped, ok / seconds, millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+    }
+
+    private static void printFailed(String name, Histogram histogram) {
+        if (histogram.getTotalCount() == 0) {
+            return;
+        }
+        System.out.printf("%-8s %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getTotalCount(),
+                millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private static void write(Histogram histogram, File file) throws IOException {
+        file.getParentFile().mkdirs();
+        try (PrintStream out = new PrintStream(file)) {
+            // Values are recorded in nanoseconds; the distribution is written in milliseconds
+            histogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in the mix but got: " + part);
+            }
+            weights.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight");
+        }
+        return weights;
+    }
+}
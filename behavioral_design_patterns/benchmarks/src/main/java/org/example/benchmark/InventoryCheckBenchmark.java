@@ -0,0 +1,70 @@
+package org.example.benchmark;
+
+import org.example.handler.InventoryCheckHandler;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old one-query-per-item inventory lookup with the batched
+ * InventoryCheckHandler against the embedded H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryCheckBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    private InventoryCheckHandler inventoryCheckHandler;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        productRepository = context.getBean(ProductRepository.class);
+        inventoryCheckHandler = context.getBean(InventoryCheckHandler.class);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            products.add(new Product("bench-product-" + i, Money.of("10.0"), 1_000_000));
+        }
+        productRepository.saveAll(products);
+
+        order = new Order("bench", Money.of("10.0").times(itemCount));
+        for (int i = 0; i < itemCount; i++) {
+            order.addItem(new OrderItem("bench-product-" + i, 1, Money.of("10.0")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void perItemLookup(Blackhole blackhole) {
+        for (OrderItem item : order.getItems()) {
+            blackhole.consume(productRepository.findByName(item.getProductName())
+                    .filter(product -> product.isInStock(item.getQuantity()))
+                    .orElseThrow());
+        }
+    }
+
+    @Benchmark
+    public void batchedLookup() {
+        inventoryCheckHandler.validate(order);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Totals the same 1000-item order three ways: with double prices (the old representation),
+ * with BigDecimal, and with Money's long minor units through Order.itemsTotal().
+ * Add {@code -prof gc} to the JMH arguments to see the allocation per total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoneyBenchmark {
+
+    private static final int ITEMS = 1000;
+
+    private double[] doublePrices;
+    private BigDecimal[] decimalPrices;
+    private int[] quantities;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        doublePrices = new double[ITEMS];
+        decimalPrices = new BigDecimal[ITEMS];
+        quantities = new int[ITEMS];
+        order = new Order("bench", Money.ZERO);
+        for (int i = 0; i < ITEMS; i++) {
+            long cents = random.nextLong(1, 100_000);
+            quantities[i] = random.nextInt(1, 10);
+            doublePrices[i] = cents / 100.0;
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            order.addItem(new OrderItem("item-" + i, quantities[i], Money.ofMinor(cents)));
+        }
+    }
+
+    @Benchmark
+    public double doubleTotal() {
+        double total = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            total += quantities[i] * doublePrices[i];
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalTotal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < ITEMS; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money longMinorUnitsTotal() {
+        return order.itemsTotal();
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.benchmark;
+
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
+import org.example.notification.NotificationService;
+import org.example.notification.Observer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cost on the publishing thread of notifying N observers of one event, with
+ * observers called on that thread (sync) or handed the event through their
+ * own queues (async). The application's own observers are removed so only the
+ * benchmark's observers, which only count the events they receive, are notified.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotificationFanOutBenchmark {
+
+    @Param({"sync", "async"})
+    private String dispatchMode;
+
+    @Param({"1", "8", "64"})
+    private int observers;
+
+    private ConfigurableApplicationContext context;
+    private NotificationService notificationService;
+    private OrderEvent event;
+    private final LongAdder delivered = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("notifications.dispatch.mode=" + dispatchMode,
+                "notifications.outbox.enabled=false");
+        notificationService = context.getBean(NotificationService.class);
+        context.getBeansOfType(Observer.class).values().forEach(notificationService::removeObserver);
+        for (int i = 0; i < observers; i++) {
+            notificationService.addObserver(new CountingObserver(delivered));
+        }
+        event = new OrderEvent(OrderEventType.STATUS_CHANGED, 1L, OrderStatus.PENDING, OrderStatus.PLACED,
+                Money.of("10.00"), System.currentTimeMillis());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void notifyObservers() {
+        notificationService.notifyObservers(event);
+    }
+
+    private record CountingObserver(LongAdder delivered) implements Observer {
+
+        @Override
+        public void update(String message) {
+            delivered.increment();
+        }
+
+        @Override
+        public void update(OrderEvent event) {
+            delivered.increment();
+        }
+    }
+}
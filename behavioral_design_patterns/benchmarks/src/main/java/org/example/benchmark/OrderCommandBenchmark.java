@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.dto.BatchOrderResult;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Place and cancel commands against the embedded H2 database, each in its own
+ * retried transaction as OrderService runs them. An order can only be placed or
+ * cancelled once, so every measured iteration works through a fresh set of
+ * {@value #ORDERS_PER_ITERATION} orders created before it; scores are the time
+ * for the whole set.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(batchSize = OrderCommandBenchmark.ORDERS_PER_ITERATION)
+@Measurement(batchSize = OrderCommandBenchmark.ORDERS_PER_ITERATION)
+public class OrderCommandBenchmark {
+
+    static final int ORDERS_PER_ITERATION = 200;
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        private ConfigurableApplicationContext context;
+        private OrderService orderService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start();
+            orderService = context.getBean(OrderService.class);
+            context.getBean(ProductRepository.class)
+                    .save(new Product("command-product", Money.of("1.00"), Integer.MAX_VALUE / 2));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        List<Long> createOrders() {
+            List<Order> orders = new ArrayList<>(ORDERS_PER_ITERATION);
+            for (int i = 0; i < ORDERS_PER_ITERATION; i++) {
+                Order order = new Order("command-customer", Money.ZERO);
+                order.addItem(new OrderItem("command-product", 1, Money.ZERO));
+                orders.add(order);
+            }
+            return orderService.createOrders(orders).stream().map(BatchOrderResult::orderId).toList();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PendingOrders {
+
+        private Iterator<Long> ids;
+
+        @Setup(Level.Iteration)
+        public void setUp(Application application) {
+            ids = application.createOrders().iterator();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PlacedOrders {
+
+        private Iterator<Long> ids;
+
+        @Setup(Level.Iteration)
+        public void setUp(Application application) {
+            List<Long> created = application.createOrders();
+            created.forEach(application.orderService::placeOrder);
+            ids = created.iterator();
+        }
+    }
+
+    @Benchmark
+    public Order placeOrder(Application application, PendingOrders orders) {
+        return application.orderService.placeOrder(orders.ids.next());
+    }
+
+    @Benchmark
+    public Order cancelPlacedOrder(Application application, PlacedOrders orders) {
+        return application.orderService.cancelOrder(orders.ids.next());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization and deserialization of large orders with the same Jackson
+ * setup Spring Boot uses for the REST API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderJsonBenchmark {
+
+    @Param({"10", "1000"})
+    private int items;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        order = new Order("json-customer", Money.ZERO);
+        order.setId(1L);
+        for (int i = 0; i < items; i++) {
+            order.addItem(new OrderItem("product-" + i, 1 + i % 5, Money.ofMinor(100 + i)));
+        }
+        order.setTotalAmount(order.itemsTotal());
+        order.setItemCount(items);
+        json = objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(order);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public Order deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, Order.class);
+    }
+}
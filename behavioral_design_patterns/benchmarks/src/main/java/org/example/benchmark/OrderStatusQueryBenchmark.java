@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import org.example.dto.OrderSummary;
+import org.example.model.OrderStatus;
+import org.example.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a status page query over 1M orders with and without the (status, id) index,
+ * and prints H2's EXPLAIN output for both so the plan change is visible in the log.
+ * SHIPPED is the rarest status (0.1% of rows), PAID covers 9.9% and the rest is PENDING.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderStatusQueryBenchmark {
+
+    private static final int ORDERS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private long deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("notifications.outbox.enabled=false");
+        orderRepository = context.getBean(OrderRepository.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        jdbc.update("INSERT INTO orders (id, customer_name, status, total_amount, currency, item_count, version) "
+                + "SELECT X, 'customer-' || MOD(X, 10000), "
+                + "CASE WHEN MOD(X, 1000) = 0 THEN 'S' WHEN MOD(X, 10) = 0 THEN 'P' ELSE 'N' END, 1000, 'USD', 1, 0 "
+                + "FROM SYSTEM_RANGE(1, " + ORDERS + ")");
+        jdbc.execute("ALTER SEQUENCE orders_seq RESTART WITH " + (ORDERS + 1));
+        if (!indexed) {
+            jdbc.execute("DROP INDEX idx_orders_status_id");
+        }
+        jdbc.execute("ANALYZE");
+        deepCursor = ORDERS * 9L / 10;
+
+        String plan = jdbc.queryForObject("EXPLAIN SELECT id, customer_name, status, total_amount FROM orders "
+                + "WHERE status = 'S' AND id > " + deepCursor + " ORDER BY id LIMIT " + (PAGE_SIZE + 1), String.class);
+        System.out.println("\n[indexed=" + indexed + "] query plan:\n" + plan + "\n");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderSummary> firstPageOfRareStatus() {
+        return orderRepository.findSummariesByStatusAfter(OrderStatus.SHIPPED, 0L, PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<OrderSummary> deepPageOfRareStatus() {
+        return orderRepository.findSummariesByStatusAfter(OrderStatus.SHIPPED, deepCursor,
+                PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<OrderSummary> firstPageOfCommonStatus() {
+        return orderRepository.findSummariesByStatusAfter(OrderStatus.PAID, 0L, PageRequest.ofSize(PAGE_SIZE + 1));
+    }
+}
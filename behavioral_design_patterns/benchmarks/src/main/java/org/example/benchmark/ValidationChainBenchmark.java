@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.example.handler.OrderValidator;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of one order and of a batch through the configured handlers
+ * (payment check, then the inventory check against H2), run as the sequential
+ * chain and as the parallel pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationChainBenchmark {
+
+    private static final int PRODUCTS = 50;
+    private static final int BATCH = 100;
+
+    @Param({"chain", "parallel"})
+    private String mode;
+
+    @Param({"1", "20"})
+    private int itemsPerOrder;
+
+    private ConfigurableApplicationContext context;
+    private OrderValidator orderValidator;
+    private Order order;
+    private List<Order> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("orders.validation.mode=" + mode);
+        orderValidator = context.getBean(OrderValidator.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        for (int i = 0; i < PRODUCTS; i++) {
+            productRepository.save(new Product("validation-" + i, Money.of("1.00"), 1_000_000));
+        }
+        order = order(0);
+        batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            batch.add(order(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order validateOne() {
+        orderValidator.validate(order);
+        return order;
+    }
+
+    @Benchmark
+    public Map<Order, String> validateBatch() {
+        Map<Order, String> rejected = new IdentityHashMap<>();
+        orderValidator.validateBatch(batch, rejected);
+        return rejected;
+    }
+
+    private Order order(int seed) {
+        Order result = new Order("validation-customer", Money.ZERO);
+        for (int i = 0; i < itemsPerOrder; i++) {
+            result.addItem(new OrderItem("validation-" + (seed + i) % PRODUCTS, 1, Money.of("1.00")));
+        }
+        result.setTotalAmount(result.itemsTotal());
+        return result;
+    }
+}
@@ -2,18 +2,21 @@ package org.example;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.model.Money;
 import org.example.model.Product;
 import org.example.repository.ProductRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Spring Boot Application Entry Point.
  * E-Commerce Order Processing System demonstrating behavioral design patterns.
  */
 @SpringBootApplication
+@EnableScheduling
 @RequiredArgsConstructor
 @Slf4j
 public class BehavioralPatternsApplication {
@@ -31,11 +34,11 @@ public class BehavioralPatternsApplication {
             log.info("Initializing sample product data...");
 
             // Create sample products
-            productRepository.save(new Product("Laptop", 999.99, 10));
-            productRepository.save(new Product("Smartphone", 699.99, 25));
-            productRepository.save(new Product("Headphones", 149.99, 50));
-            productRepository.save(new Product("Tablet", 449.99, 15));
-            productRepository.save(new Product("Smartwatch", 299.99, 30));
+            productRepository.save(new Product("Laptop", Money.of("999.99"), 10));
+            productRepository.save(new Product("Smartphone", Money.of("699.99"), 25));
+            productRepository.save(new Product("Headphones", Money.of("149.99"), 50));
+            productRepository.save(new Product("Tablet", Money.of("449.99"), 15));
+            productRepository.save(new Product("Smartwatch", Money.of("299.99"), 30));
 
             log.info("Sample data initialized. {} products created.", productRepository.count());
             log.info("Application ready! Access H2 Console at: http://localhost:8080/h2-console");
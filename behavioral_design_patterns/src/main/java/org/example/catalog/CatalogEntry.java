@@ -0,0 +1,16 @@
+package org.example.catalog;
+
+import org.example.model.Money;
+import org.example.model.Product;
+
+/**
+ * Read-mostly view of a product as held by the {@link ProductCatalog}.
+ * Deliberately carries no stock: stock changes on every order and is always
+ * read (or conditionally updated) in the database.
+ */
+public record CatalogEntry(Long id, String name, Money price) {
+
+    public static CatalogEntry of(Product product) {
+        return new CatalogEntry(product.getId(), product.getName(), product.getPrice());
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.catalog;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prices orders from the product catalog instead of trusting the prices and totals sent by clients.
+ * All product prices an order (or a whole batch) needs come from one {@link ProductCatalog#findAll}
+ * lookup, and each order is then priced in a single pass over its items that also sets its stored
+ * item count and total. Items for unknown products keep their price and are left for the inventory
+ * check to reject.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPricer {
+
+    private final ProductCatalog productCatalog;
+
+    public void price(Order order) {
+        priceAll(List.of(order));
+    }
+
+    public void priceAll(Collection<Order> orders) {
+        Set<String> names = new HashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                names.add(item.getProductName());
+            }
+        }
+        Map<String, CatalogEntry> prices = productCatalog.findAll(names);
+        for (Order order : orders) {
+            price(order, prices);
+        }
+    }
+
+    /**
+     * Prices a single item for an existing order.
+     *
+     * @throws IllegalArgumentException if the product does not exist
+     */
+    public void price(OrderItem item) {
+        CatalogEntry entry = productCatalog.find(item.getProductName())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found: " + item.getProductName()));
+        item.setPrice(entry.price());
+    }
+
+    private static void price(Order order, Map<String, CatalogEntry> prices) {
+        List<OrderItem> items = order.getItems();
+        long total = 0;
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            CatalogEntry entry = prices.get(item.getProductName());
+            if (entry != null) {
+                item.setPrice(entry.price());
+            }
+            total = Math.addExact(total, item.subtotalMinorUnits(Money.DEFAULT_CURRENCY));
+        }
+        Money computed = Money.ofMinor(total);
+        if (!computed.equals(order.getTotalAmount())) {
+            log.debug("Order total {} sent by client replaced by {}", order.getTotalAmount(), computed);
+        }
+        order.setTotalAmount(computed);
+        order.setItemCount(items.size());
+    }
+}
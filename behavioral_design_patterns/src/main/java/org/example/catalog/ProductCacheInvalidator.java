@@ -0,0 +1,42 @@
+package org.example.catalog;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.model.Product;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that keeps the {@link ProductCatalog} in step with product writes
+ * (including Product.reduceStock/increaseStock followed by a flush).
+ * The entry is evicted at flush time and again once the transaction completes, so a
+ * concurrent reader cannot re-cache the pre-commit row for the rest of the TTL.
+ * Bulk stock UPDATEs bypass this listener, which is fine because stock is not cached.
+ */
+@Component
+public class ProductCacheInvalidator {
+
+    private final ProductCatalog productCatalog;
+
+    // Lazy: Hibernate instantiates listeners while the EntityManagerFactory the catalog depends on is being built
+    public ProductCacheInvalidator(@Lazy ProductCatalog productCatalog) {
+        this.productCatalog = productCatalog;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void productChanged(Product product) {
+        Long productId = product.getId();
+        productCatalog.invalidate(productId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    productCatalog.invalidate(productId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.catalog;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded in-memory cache of the product catalog, keyed by product name.
+ * Only identity and price are cached; stock is never served from here.
+ * Misses are loaded from the database (in bulk for {@link #findAll(Collection)}),
+ * unknown names are not cached, and entries are evicted by size and age.
+ * Entity writes evict the affected product through {@link ProductCacheInvalidator}.
+ */
+@Component
+@Slf4j
+public class ProductCatalog {
+
+    static final String CACHE_NAME = "products";
+
+    private final LoadingCache<String, CatalogEntry> cache;
+
+    public ProductCatalog(ProductRepository productRepository,
+                          @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${catalog.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public CatalogEntry load(String name) {
+                        return productRepository.findByName(name).map(CatalogEntry::of).orElse(null);
+                    }
+
+                    @Override
+                    public Map<String, CatalogEntry> loadAll(Set<? extends String> names) {
+                        Map<String, CatalogEntry> loaded = new HashMap<>();
+                        for (Product product : productRepository.findByNameIn(Set.copyOf(names))) {
+                            loaded.put(product.getName(), CatalogEntry.of(product));
+                        }
+                        return loaded;
+                    }
+                });
+        // Exposes cache.gets{result=hit|miss}, cache.evictions, cache.size, ... tagged cache=products
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<CatalogEntry> find(String name) {
+        return Optional.ofNullable(cache.get(name));
+    }
+
+    /**
+     * Looks up several products at once. All misses are loaded with a single query;
+     * names that do not match a product are absent from the result.
+     */
+    public Map<String, CatalogEntry> findAll(Collection<String> names) {
+        return cache.getAll(names);
+    }
+
+    /**
+     * Evicts every entry for the given product id, so a renamed product does not
+     * linger under its old name.
+     */
+    public void invalidate(Long productId) {
+        if (cache.asMap().values().removeIf(entry -> entry.id().equals(productId))) {
+            log.debug("Evicted product {} from the catalog cache", productId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -2,11 +2,13 @@ package org.example.command;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.inventory.StockReservationService;
 import org.example.model.Order;
-import org.example.model.OrderItem;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
 import org.example.notification.NotificationService;
 import org.example.repository.OrderRepository;
-import org.example.repository.ProductRepository;
 
 /**
  * Command pattern implementation for canceling an order.
@@ -18,7 +20,7 @@ public class CancelOrderCommand implements OrderCommand {
 
     private final Order order;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
     private final NotificationService notificationService;
 
     @Override
@@ -26,35 +28,37 @@ public class CancelOrderCommand implements OrderCommand {
         log.info("Executing CancelOrderCommand for order: {}", order.getId());
 
         // Check if order can be canceled
-        if ("CANCELLED".equals(order.getStatus())) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
             log.warn("Order {} is already cancelled", order.getId());
             throw new IllegalStateException("Order is already cancelled");
         }
 
-        if ("SHIPPED".equals(order.getStatus())) {
+        if (order.getStatus() == OrderStatus.SHIPPED) {
             log.warn("Cannot cancel shipped order: {}", order.getId());
             throw new IllegalStateException("Cannot cancel a shipped order");
         }
 
-        // Restore inventory if order was placed
-        if ("PLACED".equals(order.getStatus()) || "PAID".equals(order.getStatus())) {
-            for (OrderItem item : order.getItems()) {
-                productRepository.findByName(item.getProductName()).ifPresent(product -> {
-                    product.increaseStock(item.getQuantity());
-                    productRepository.save(product);
-                    log.debug("Restored stock for product: {} by {}", item.getProductName(), item.getQuantity());
-                });
-            }
+        if (order.getStatus() == OrderStatus.PAYMENT_PENDING) {
+            log.warn("Cannot cancel order {} while its payment is in progress", order.getId());
+            throw new IllegalStateException("Cannot cancel an order with a payment in progress");
+        }
+
+        // Restore inventory: a placed order gives back everything, a pending one its holds
+        if (order.getStatus() == OrderStatus.PLACED || order.getStatus() == OrderStatus.PAID) {
+            stockReservationService.restock(order);
+        } else if (order.getStatus() == OrderStatus.PENDING) {
+            stockReservationService.release(order);
         }
 
         // Update order status
-        order.updateStatus("CANCELLED");
+        OrderStatus oldStatus = order.getStatus();
+        order.updateStatus(OrderStatus.CANCELLED);
 
         // Save the order
         orderRepository.save(order);
 
         // Notify observers
-        notificationService.notifyObservers("Order cancelled: " + order.getId());
+        notificationService.publish(OrderEvent.of(OrderEventType.CANCELLED, order, oldStatus));
 
         log.info("Order {} cancelled successfully", order.getId());
     }
@@ -0,0 +1,214 @@
+package org.example.command;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.inventory.StockReservationService;
+import org.example.model.Order;
+import org.example.repository.OrderRepository;
+import org.example.service.OptimisticLockRetry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Optional group-commit executor for order commands ({@code orders.command-bus.enabled}).
+ * Commands are queued to one of {@code shards} single-threaded writers, chosen by order id,
+ * so commands for the same order are applied in submission order and routing needs no query.
+ * Each writer drains up to {@code max-batch-size} queued commands, loads their orders with one
+ * query and applies them all in one transaction, so a burst pays for one commit per batch instead
+ * of one per command. Callers get a future completed with the updated order after the commit.
+ * The batch transaction first locks every stock row its commands can change, in product id
+ * order, so writers whose batches share products wait for each other instead of deadlocking.
+ * If anything in a batch fails, the batch is rolled back and its two halves are applied
+ * separately, down to single commands run in their own retried transaction, so a command only
+ * ever fails for its own reasons and one failure costs a few extra transactions, not one per command.
+ */
+@Component
+@Slf4j
+public class OrderCommandBus {
+
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final OrderRepository orderRepository;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    private final List<Shard> shards = new ArrayList<>();
+
+    public OrderCommandBus(@Value("${orders.command-bus.enabled:false}") boolean enabled,
+                           @Value("${orders.command-bus.shards:4}") int shardCount,
+                           @Value("${orders.command-bus.max-batch-size:64}") int maxBatchSize,
+                           @Value("${orders.command-bus.queue-capacity:4096}") int queueCapacity,
+                           OrderRepository orderRepository,
+                           StockReservationService stockReservationService,
+                           TransactionTemplate transactionTemplate,
+                           OptimisticLockRetry optimisticLockRetry,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.orderRepository = orderRepository;
+        this.stockReservationService = stockReservationService;
+        this.transactionTemplate = transactionTemplate;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.batchSizes = DistributionSummary.builder("orders.commands.batch.size")
+                .description("Commands applied per group-commit transaction")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("orders.commands.batch.fallbacks")
+                .description("Batches rolled back and re-run in halves")
+                .register(meterRegistry);
+        if (enabled) {
+            for (int i = 0; i < shardCount; i++) {
+                Shard shard = new Shard(new ArrayBlockingQueue<>(queueCapacity));
+                shard.writer = new Thread(() -> runWriter(shard), "order-writer-" + i);
+                shard.writer.setDaemon(true);
+                shard.writer.start();
+                shards.add(shard);
+            }
+            log.info("Order command bus started with {} writers, batches of up to {}", shardCount, maxBatchSize);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a command for the order.
+     *
+     * @param operation name used for logging and retry metrics
+     * @param command   builds the command for the order as loaded inside the batch transaction
+     * @return a future completed with the saved order after commit, or failed with the command's exception
+     */
+    public CompletableFuture<Order> submit(String operation, Long orderId, Function<Order, OrderCommand> command) {
+        if (!enabled) {
+            throw new IllegalStateException("Order command bus is disabled");
+        }
+        Request request = new Request(operation, orderId, command, new CompletableFuture<>());
+        if (!shardFor(orderId).queue.offer(request)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Order command queue is full"));
+        }
+        return request.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.writer.interrupt();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.writer.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (Request request : shard.queue) {
+                request.result().completeExceptionally(new IllegalStateException("Order command bus is shutting down"));
+            }
+        }
+    }
+
+    private Shard shardFor(Long orderId) {
+        return shards.get((int) Math.floorMod(orderId, (long) shards.size()));
+    }
+
+    private void runWriter(Shard shard) {
+        List<Request> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(shard.queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            shard.queue.drainTo(batch, maxBatchSize - 1);
+            batchSizes.record(batch.size());
+            try {
+                applyBatch(batch);
+            } catch (RuntimeException e) {
+                log.error("Order command batch failed unexpectedly", e);
+                batch.forEach(request -> request.result().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void applyBatch(List<Request> batch) {
+        if (batch.size() == 1) {
+            applyAlone(batch.get(0));
+            return;
+        }
+        List<Order> results;
+        try {
+            results = transactionTemplate.execute(status -> applyAll(batch));
+        } catch (RuntimeException e) {
+            fallbacks.increment();
+            log.debug("Batch of {} commands rolled back ({}), applying it in halves", batch.size(), e.getMessage());
+            int half = batch.size() / 2;
+            applyBatch(batch.subList(0, half));
+            applyBatch(batch.subList(half, batch.size()));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private List<Order> applyAll(List<Request> batch) {
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(
+                        batch.stream().map(Request::orderId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        stockReservationService.lockStock(orders.values());
+        List<Order> results = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            Order order = orders.get(request.orderId());
+            if (order == null) {
+                throw new IllegalArgumentException("Order not found: " + request.orderId());
+            }
+            request.command().apply(order).execute();
+            results.add(orderRepository.save(order));
+        }
+        return results;
+    }
+
+    private void applyAlone(Request request) {
+        try {
+            Order order = optimisticLockRetry.execute(request.operation(), () -> transactionTemplate.execute(status -> {
+                Order loaded = orderRepository.findWithItemsById(request.orderId())
+                        .orElseThrow(() -> new IllegalArgumentException("Order not found: " + request.orderId()));
+                request.command().apply(loaded).execute();
+                return orderRepository.save(loaded);
+            }));
+            request.result().complete(order);
+        } catch (RuntimeException e) {
+            request.result().completeExceptionally(e);
+        }
+    }
+
+    private record Request(String operation, Long orderId, Function<Order, OrderCommand> command,
+                           CompletableFuture<Order> result) {
+    }
+
+    private static final class Shard {
+        private final BlockingQueue<Request> queue;
+        private Thread writer;
+
+        private Shard(BlockingQueue<Request> queue) {
+            this.queue = queue;
+        }
+    }
+}
@@ -2,16 +2,20 @@ package org.example.command;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.inventory.StockReservationService;
 import org.example.model.Order;
-import org.example.model.OrderItem;
-import org.example.model.Product;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
 import org.example.notification.NotificationService;
 import org.example.repository.OrderRepository;
-import org.example.repository.ProductRepository;
 
 /**
  * Command pattern implementation for placing an order.
  * Executes the order placement logic including inventory reduction.
+ * The stock held when the order was created is converted into a permanent reduction;
+ * units whose hold expired are taken with a conditional UPDATE, so the order is rejected
+ * (and the surrounding transaction rolled back) if any product has run short since.
  */
 @RequiredArgsConstructor
 @Slf4j
@@ -19,31 +23,32 @@ public class PlaceOrderCommand implements OrderCommand {
 
     private final Order order;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
     private final NotificationService notificationService;
 
     @Override
     public void execute() {
         log.info("Executing PlaceOrderCommand for order: {}", order.getId());
 
-        // Implement order placement logic
-        // 1. Reduce product inventory
-        for (OrderItem item : order.getItems()) {
-            productRepository.findByName(item.getProductName()).ifPresent(product -> {
-                product.reduceStock(item.getQuantity());
-                productRepository.save(product);
-                log.debug("Reduced stock for product: {} by {}", item.getProductName(), item.getQuantity());
-            });
+        // Only pending orders can be placed (a retried attempt must not take stock twice)
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.warn("Order {} cannot be placed from status {}", order.getId(), order.getStatus());
+            throw new IllegalStateException("Only pending orders can be placed");
         }
 
+        // Implement order placement logic
+        // 1. Convert the stock holds into a permanent inventory reduction
+        stockReservationService.convert(order);
+
         // 2. Update order status
-        order.updateStatus("PLACED");
+        OrderStatus oldStatus = order.getStatus();
+        order.updateStatus(OrderStatus.PLACED);
 
         // 3. Save the order
         orderRepository.save(order);
 
         // 4. Notify observers
-        notificationService.notifyObservers("Order placed successfully: " + order.getId());
+        notificationService.publish(OrderEvent.of(OrderEventType.PLACED, order, oldStatus));
 
         log.info("Order {} placed successfully", order.getId());
     }
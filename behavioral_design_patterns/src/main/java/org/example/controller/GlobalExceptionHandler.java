@@ -1,8 +1,10 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -10,12 +12,28 @@ import java.util.Map;
 
 /**
  * Global exception handler for REST API.
- * Captures and logs all exceptions for debugging.
+ * Captures and logs all exceptions for debugging. A request body that cannot be read (malformed
+ * JSON, a null or over-precise amount rejected by {@link org.example.model.Money}) and any other
+ * invalid argument are the client's fault and get 400.
  */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleUnreadableBody(HttpMessageNotReadableException e) {
+        Throwable cause = e.getMostSpecificCause();
+        String message = cause instanceof JsonProcessingException json ? json.getOriginalMessage() : cause.getMessage();
+        log.warn("Unreadable request body: {}", message);
+        return badRequest(message);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException e) {
+        log.warn("Invalid request: {}", e.getMessage());
+        return badRequest(e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleException(Exception e) {
         log.error("Unhandled exception caught: ", e);
@@ -24,4 +42,11 @@ public class GlobalExceptionHandler {
                         "error", e.getClass().getSimpleName(),
                         "message", e.getMessage() != null ? e.getMessage() : "Unknown error"));
     }
+
+    private static ResponseEntity<Map<String, String>> badRequest(String message) {
+        return ResponseEntity.badRequest()
+                .body(Map.of(
+                        "error", HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                        "message", message != null ? message : "Invalid request"));
+    }
 }
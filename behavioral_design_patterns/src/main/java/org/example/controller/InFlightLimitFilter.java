@@ -0,0 +1,141 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the order API requests being handled and, when requests run on virtual threads,
+ * limits them. With platform threads Tomcat's thread pool is what bounds concurrency; with
+ * virtual threads every request gets its own thread, so without a limit a burst would just
+ * pile up waiting for JDBC connections. {@code orders.web.limit-in-flight} turns the limit on
+ * or off regardless of the thread kind; left empty, it follows
+ * {@code spring.threads.virtual.enabled}. The limit defaults to the Hikari pool size: a request
+ * waits up to {@code orders.web.in-flight-wait} for a permit and gets 503 if none frees up.
+ * A permit is held while a request thread runs, so a payment waiting for the gateway
+ * asynchronously does not hold one. The current and peak counts are exposed as
+ * {@code orders.web.requests.in_flight} and {@code orders.web.requests.in_flight.peak}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class InFlightLimitFilter extends OncePerRequestFilter {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long waitNanos;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final Counter rejected;
+
+    public InFlightLimitFilter(@Value("${orders.web.limit-in-flight:#{null}}") Boolean limitInFlight,
+                               @Value("${orders.web.max-in-flight:0}") int maxInFlight,
+                               @Value("${orders.web.in-flight-wait:5s}") Duration wait,
+                               Environment environment,
+                               DataSource dataSource,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.limit = maxInFlight > 0 ? maxInFlight : poolSize(dataSource);
+        boolean virtualThreads = Threading.VIRTUAL.isActive(environment);
+        boolean limiting = limitInFlight != null ? limitInFlight : virtualThreads;
+        this.permits = limiting ? new Semaphore(limit, true) : null;
+        this.waitNanos = wait.toNanos();
+        this.objectMapper = objectMapper;
+        Gauge.builder("orders.web.requests.in_flight", inFlight, AtomicInteger::get)
+                .description("Order API requests being handled")
+                .register(meterRegistry);
+        Gauge.builder("orders.web.requests.in_flight.peak", peak, AtomicInteger::get)
+                .description("Most order API requests handled at the same time since startup")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("orders.web.requests.rejected");
+        if (permits != null) {
+            log.info("Requests run on {} threads, order API limited to {} requests in flight",
+                    virtualThreads ? "virtual" : "platform", limit);
+        }
+    }
+
+    public boolean isLimiting() {
+        return permits != null;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getPeakInFlight() {
+        return peak.get();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/orders");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (permits != null && !acquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of(
+                    "error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                    "message", "Too many requests in progress, try again shortly"));
+            return;
+        }
+        peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
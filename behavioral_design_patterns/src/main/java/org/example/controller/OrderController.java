@@ -1,16 +1,30 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BatchOrderResult;
+import org.example.dto.CursorPage;
+import org.example.dto.OrderSummary;
 import org.example.model.Order;
 import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.example.payment.PaymentNotCompletedException;
 import org.example.service.OrderService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST Controller for order management.
@@ -22,7 +36,13 @@ import java.util.Map;
 @Slf4j
 public class OrderController {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Create a new order.
@@ -41,13 +61,48 @@ public class OrderController {
     }
 
     /**
-     * Get all orders.
-     * GET /api/orders
+     * Create many orders in one request.
+     * POST /api/orders/batch
+     * Returns one result per submitted order, in request order.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchOrderResult>> createOrders(@RequestBody List<Order> orders) {
+        log.info("Received request to create a batch of {} orders", orders.size());
+        if (orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+            log.error("Batch size must be between 1 and {}, got {}", MAX_BATCH_SIZE, orders.size());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderService.createOrders(orders));
+    }
+
+    /**
+     * Get order summaries (without items) one page at a time, ordered by id.
+     * GET /api/orders?afterId={cursor}&size={size}
+     * The page size is capped at MAX_PAGE_SIZE; follow nextCursor until it is null.
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        log.debug("Fetching all orders");
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<CursorPage<OrderSummary>> getAllOrders(@RequestParam(defaultValue = "0") Long afterId,
+                                                          @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        log.debug("Fetching {} orders after ID: {}", size, afterId);
+        return ResponseEntity.ok(orderService.getOrdersPage(afterId, pageSize(size)));
+    }
+
+    /**
+     * Stream all order summaries as newline-delimited JSON, one per line, written as rows are read.
+     * GET /api/orders/stream
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.debug("Streaming all orders");
+        StreamingResponseBody body = out -> orderService.streamAllOrders(order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
@@ -68,13 +123,20 @@ public class OrderController {
     }
 
     /**
-     * Get orders by status.
-     * GET /api/orders/status/{status}
+     * Get order summaries by status, one page at a time.
+     * GET /api/orders/status/{status}?afterId={cursor}&size={size}
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<CursorPage<OrderSummary>> getOrdersByStatus(@PathVariable String status,
+                                                                      @RequestParam(defaultValue = "0") Long afterId,
+                                                                      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
         log.debug("Fetching orders with status: {}", status);
-        return ResponseEntity.ok(orderService.getOrdersByStatus(status));
+        try {
+            return ResponseEntity.ok(orderService.getOrdersByStatus(status, afterId, pageSize(size)));
+        } catch (IllegalArgumentException e) {
+            log.error("Failed to fetch orders by status: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -113,20 +175,51 @@ public class OrderController {
      * Process payment for an order (using Strategy pattern).
      * POST /api/orders/{id}/pay
      * Request body: { "paymentMethod": "creditcard" | "paypal" }
+     * The request thread is released while the payment gateway answers.
+     * Returns 200 with the paid order, 400 when the payment was declined, 503 when it was
+     * never sent (circuit open or too many payments in flight), and 202 with the order still
+     * PAYMENT_PENDING when the gateway did not answer: the payment is then settled by paying
+     * again or by the PaymentReconciler.
      */
     @PostMapping("/{id}/pay")
-    public ResponseEntity<Order> processPayment(@PathVariable Long id, @RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<Order>> processPayment(@PathVariable Long id,
+                                                                   @RequestBody Map<String, String> request) {
         String paymentMethod = request.get("paymentMethod");
         log.info("Processing payment for order {} using {}", id, paymentMethod);
         try {
-            Order paidOrder = orderService.processPayment(id, paymentMethod);
-            return ResponseEntity.ok(paidOrder);
-        } catch (IllegalArgumentException e) {
+            return orderService.processPaymentAsync(id, paymentMethod)
+                    .handle((paidOrder, error) -> {
+                        if (error == null) {
+                            return ResponseEntity.ok(paidOrder);
+                        }
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        if (cause instanceof PaymentNotCompletedException notCompleted) {
+                            return paymentNotCompleted(notCompleted);
+                        }
+                        if (cause instanceof IllegalArgumentException || cause instanceof IllegalStateException) {
+                            log.error("Failed to process payment: {}", cause.getMessage());
+                            return ResponseEntity.badRequest().<Order>build();
+                        }
+                        throw new CompletionException(cause);
+                    });
+        } catch (IllegalArgumentException | IllegalStateException e) {
             log.error("Failed to process payment: {}", e.getMessage());
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
     }
 
+    private static ResponseEntity<Order> paymentNotCompleted(PaymentNotCompletedException e) {
+        log.warn("Payment for order {} not completed: {}", e.getOrder().getId(), e.getMessage());
+        return switch (e.getResult().status()) {
+            case UNKNOWN -> ResponseEntity.accepted().body(e.getOrder());
+            case REJECTED -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+
     /**
      * Update order status.
      * PUT /api/orders/{id}/status
@@ -135,6 +228,12 @@ public class OrderController {
     public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> request) {
         String newStatus = request.get("status");
         log.info("Updating order {} status to: {}", id, newStatus);
+        try {
+            OrderStatus.parse(newStatus);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid order status: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
         try {
             Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
             return ResponseEntity.ok(updatedOrder);
@@ -159,4 +258,8 @@ public class OrderController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
 }
@@ -0,0 +1,90 @@
+package org.example.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CursorPage;
+import org.example.dto.OrderSummary;
+import org.example.dto.OrderView;
+import org.example.model.OrderStatus;
+import org.example.query.OrderQueryService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.example.controller.OrderController.DEFAULT_PAGE_SIZE;
+import static org.example.controller.OrderController.MAX_PAGE_SIZE;
+
+/**
+ * Read-only order API served from the read side (see OrderQueryService).
+ * Handlers return Mono/Flux, so the servlet thread is handed back as soon as the query is
+ * started and the response is written when it completes. The queries use their own connection
+ * pool and threads, and these paths are outside /api/orders and its in-flight limit, so a flood
+ * of reads here cannot hold up order placement. Returns 503 when the read queue is full.
+ */
+@RestController
+@RequestMapping("/api/read/orders")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReadController {
+
+    private final OrderQueryService orderQueryService;
+
+    /**
+     * Get an order and its items.
+     * GET /api/read/orders/{id}
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderView>> getOrderById(@PathVariable Long id) {
+        return orderQueryService.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Get order summaries by status, one page at a time.
+     * GET /api/read/orders/status/{status}?afterId={cursor}&size={size}
+     */
+    @GetMapping("/status/{status}")
+    public Mono<ResponseEntity<CursorPage<OrderSummary>>> getOrdersByStatus(@PathVariable String status,
+                                                                            @RequestParam(defaultValue = "0") Long afterId,
+                                                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return orderQueryService.findByStatus(OrderStatus.parse(status), afterId, pageSize)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Stream every order summary with the given status as newline-delimited JSON. Rows are
+     * read as the client consumes them, so a slow client slows the queries down rather than
+     * buffering the result. The response has no overall time limit; it is cut off once the
+     * client has read nothing for {@code orders.read.stream-idle-timeout}.
+     * GET /api/read/orders/status/{status}/stream?afterId={cursor}
+     */
+    @GetMapping(value = "/status/{status}/stream", produces = "application/x-ndjson")
+    public Flux<OrderSummary> streamOrdersByStatus(@PathVariable String status,
+                                                   @RequestParam(defaultValue = "0") Long afterId) {
+        return orderQueryService.streamByStatus(OrderStatus.parse(status), afterId);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleBadRequest(IllegalArgumentException e) {
+        log.debug("Rejected read request: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                .body(Map.of("error", HttpStatus.BAD_REQUEST.getReasonPhrase(), "message", e.getMessage()));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> handleReadQueueFull(RejectedExecutionException e) {
+        log.warn("Read queue full, rejecting request");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(),
+                        "message", "Too many reads in progress, try again shortly"));
+    }
+}
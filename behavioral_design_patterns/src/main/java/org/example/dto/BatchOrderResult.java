@@ -0,0 +1,20 @@
+package org.example.dto;
+
+/**
+ * Outcome of one order in a POST /api/orders/batch request.
+ *
+ * @param index   position of the order in the request
+ * @param orderId id of the created order, or null if it was rejected
+ * @param created whether the order was created
+ * @param error   validation failure message for rejected orders
+ */
+public record BatchOrderResult(int index, Long orderId, boolean created, String error) {
+
+    public static BatchOrderResult created(int index, Long orderId) {
+        return new BatchOrderResult(index, orderId, true, null);
+    }
+
+    public static BatchOrderResult rejected(int index, String error) {
+        return new BatchOrderResult(index, null, false, error);
+    }
+}
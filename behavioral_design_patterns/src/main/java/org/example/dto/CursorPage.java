@@ -0,0 +1,12 @@
+package org.example.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items      the rows in this page, in ascending id order
+ * @param nextCursor pass as {@code afterId} to fetch the next page; null on the last page
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+}
@@ -0,0 +1,11 @@
+package org.example.dto;
+
+import org.example.model.Money;
+import org.example.model.OrderStatus;
+
+/**
+ * Order header without its items, used by list endpoints so they never read order_items.
+ */
+public record OrderSummary(Long id, String customerName, OrderStatus status, Money totalAmount,
+                           int itemCount, String paymentMethod) {
+}
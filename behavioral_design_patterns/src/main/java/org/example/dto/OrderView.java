@@ -0,0 +1,24 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.example.model.Money;
+import org.example.model.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Read-only copy of an order and its items, built straight from a JDBC row set by the read side
+ * (see org.example.query.OrderReadStore) rather than from managed entities. Serialises to the same
+ * JSON as Order and OrderItem, so /api/read/orders/{id} and /api/orders/{id} return the same body.
+ */
+public record OrderView(Long id, String customerName, OrderStatus status, Money totalAmount, int itemCount,
+                        String paymentMethod, Long version, List<Item> items) {
+
+    public record Item(Long id, String productName, int quantity, Money price) {
+
+        @JsonProperty
+        public Money subtotal() {
+            return price.times(quantity);
+        }
+    }
+}
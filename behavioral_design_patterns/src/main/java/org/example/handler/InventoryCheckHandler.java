@@ -2,17 +2,32 @@ package org.example.handler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.inventory.HotStockCounters;
 import org.example.model.Order;
 import org.example.model.OrderItem;
 import org.example.model.Product;
 import org.example.repository.ProductRepository;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Chain of Responsibility handler for checking inventory.
  * Validates that all items in the order are in stock.
+ * All products are loaded with one batched query and checked in memory,
+ * so the cost is a single round trip regardless of the number of items.
+ * A hot product also counts the units this instance holds in its counters, which
+ * have already been withdrawn from the row.
+ * Independent of the payment check, so the parallel pipeline runs the two side by side
+ * and a payment failure cancels the query if it is still running.
  */
 @Component
 @RequiredArgsConstructor
@@ -20,34 +35,100 @@ import java.util.Optional;
 public class InventoryCheckHandler extends OrderValidationHandler {
 
     private final ProductRepository productRepository;
+    private final HotStockCounters hotStockCounters;
 
     @Override
     public void validate(Order order) {
         log.info("Checking inventory for order with {} items", order.getItems().size());
 
-        // Check if items are in stock
-        for (OrderItem item : order.getItems()) {
-            Optional<Product> productOpt = productRepository.findByName(item.getProductName());
+        Map<String, Integer> requested = requestedQuantities(order);
+        List<String> failures = check(requested, loadProducts(requested.keySet()));
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(String.join("; ", failures));
+        }
+
+        log.info("Inventory check passed for all items");
+    }
+
+    /**
+     * Checks every order of the batch against products loaded with a single query.
+     */
+    @Override
+    public void validateBatch(List<Order> orders, Map<Order, String> rejected) {
+        log.info("Checking inventory for a batch of {} orders", orders.size());
 
-            if (productOpt.isEmpty()) {
-                log.warn("Product not found: {}", item.getProductName());
-                throw new IllegalStateException("Product not found: " + item.getProductName());
+        Map<Order, Map<String, Integer>> requestedByOrder = new IdentityHashMap<>();
+        Set<String> productNames = new HashSet<>();
+        for (Order order : orders) {
+            if (!rejected.containsKey(order)) {
+                Map<String, Integer> requested = requestedQuantities(order);
+                requestedByOrder.put(order, requested);
+                productNames.addAll(requested.keySet());
             }
+        }
 
-            Product product = productOpt.get();
-            if (!product.isInStock(item.getQuantity())) {
-                log.warn("Insufficient stock for product: {}. Requested: {}, Available: {}",
-                        item.getProductName(), item.getQuantity(), product.getStockQuantity());
-                throw new IllegalStateException("Insufficient stock for product: " + item.getProductName());
+        Map<String, Product> products = loadProducts(productNames);
+        requestedByOrder.forEach((order, requested) -> {
+            List<String> failures = check(requested, products);
+            if (!failures.isEmpty()) {
+                rejected.put(order, String.join("; ", failures));
             }
+        });
+    }
 
-            log.debug("Inventory check passed for product: {} (quantity: {})",
-                    item.getProductName(), item.getQuantity());
+    /**
+     * Sums requested quantities per product so repeated lines are checked together.
+     */
+    private static Map<String, Integer> requestedQuantities(Order order) {
+        Map<String, Integer> requested = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            requested.merge(item.getProductName(), item.getQuantity(), Integer::sum);
         }
+        return requested;
+    }
 
-        log.info("Inventory check passed for all items");
+    /**
+     * Loads all named products in one query.
+     */
+    private Map<String, Product> loadProducts(Collection<String> names) {
+        Map<String, Product> products = new HashMap<>();
+        if (!names.isEmpty()) {
+            for (Product product : productRepository.findByNameIn(names)) {
+                products.put(product.getName(), product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Checks if items are in stock, collecting every failure.
+     */
+    private List<String> check(Map<String, Integer> requested, Map<String, Product> products) {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : requested.entrySet()) {
+            String productName = entry.getKey();
+            int quantity = entry.getValue();
+            Product product = products.get(productName);
 
-        // Pass to next handler in the chain
-        super.validate(order);
+            if (product == null) {
+                log.warn("Product not found: {}", productName);
+                failures.add("Product not found: " + productName);
+            } else if (available(product) < quantity) {
+                log.warn("Insufficient stock for product: {}. Requested: {}, Available: {}",
+                        productName, quantity, available(product));
+                failures.add("Insufficient stock for product: " + productName);
+            } else {
+                log.debug("Inventory check passed for product: {} (quantity: {})", productName, quantity);
+            }
+        }
+        return failures;
+    }
+
+    private long available(Product product) {
+        long available = product.getStockQuantity();
+        if (hotStockCounters.isHot(product.getId())) {
+            available += hotStockCounters.available(product.getId());
+        }
+        return available;
     }
 }
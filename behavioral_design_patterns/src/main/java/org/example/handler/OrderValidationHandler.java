@@ -1,26 +1,55 @@
 package org.example.handler;
 
 import org.example.model.Order;
-import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract base class for the Chain of Responsibility pattern.
- * Handlers validate orders and pass them to the next handler in the chain.
+ * A handler performs one kind of check; handlers are stateless singletons and are
+ * linked into an immutable {@link ValidationChain} once at startup, which passes
+ * the order on to the next handler when this one accepts it, or are run side by side
+ * by the {@link ParallelValidationPipeline}.
  */
-@Setter
 public abstract class OrderValidationHandler {
 
-    protected OrderValidationHandler next;
-
     /**
-     * Validates the order and passes to the next handler if validation passes.
-     * 
+     * Validates the order against this handler's rules only.
+     *
      * @param order The order to validate
      * @throws IllegalStateException if validation fails
      */
-    public void validate(Order order) {
-        if (next != null) {
-            next.validate(order);
+    public abstract void validate(Order order);
+
+    /**
+     * Handlers that must pass before this one runs in the parallel pipeline. None by default,
+     * so the handler runs concurrently with all the others.
+     */
+    public Set<Class<? extends OrderValidationHandler>> dependsOn() {
+        return Set.of();
+    }
+
+    /**
+     * Validates a batch of orders against this handler's rules.
+     * Orders already present in {@code rejected} are skipped; every order that fails is
+     * added to it with the failure message. The default runs {@link #validate(Order)} per
+     * order; handlers that hit the database override it to check the whole batch at once.
+     *
+     * @param orders   the orders to validate
+     * @param rejected failure message per rejected order, keyed by identity
+     */
+    public void validateBatch(List<Order> orders, Map<Order, String> rejected) {
+        for (Order order : orders) {
+            if (rejected.containsKey(order)) {
+                continue;
+            }
+            try {
+                validate(order);
+            } catch (IllegalStateException e) {
+                rejected.put(order, e.getMessage());
+            }
         }
     }
 }
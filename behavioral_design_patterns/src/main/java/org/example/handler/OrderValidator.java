@@ -0,0 +1,23 @@
+package org.example.handler;
+
+import org.example.model.Order;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs an order through the configured validation handlers, either one after another
+ * ({@link ValidationChain}) or concurrently ({@link ParallelValidationPipeline}).
+ */
+public interface OrderValidator {
+
+    /**
+     * @throws IllegalStateException if the order is invalid
+     */
+    void validate(Order order);
+
+    /**
+     * Adds every invalid order of the batch to {@code rejected} with its failure message.
+     */
+    void validateBatch(List<Order> orders, Map<Order, String> rejected);
+}
@@ -0,0 +1,218 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.handler.ValidationReport.HandlerResult;
+import org.example.handler.ValidationReport.Outcome;
+import org.example.model.Order;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs independent validation handlers concurrently.
+ * A handler starts as soon as every handler it {@linkplain OrderValidationHandler#dependsOn()
+ * depends on} has passed, so an order's validation takes as long as the slowest dependency
+ * path instead of the sum of all handlers. The first failure completes the validation
+ * immediately, cancels every handler that has not started yet and interrupts the ones still
+ * running; a handler that stops on interruption is reported as cancelled. Handlers run on the
+ * given executor, outside the caller's transaction.
+ */
+public final class ParallelValidationPipeline implements OrderValidator {
+
+    private final List<TimedHandler> stages;
+    private final int[][] dependencies;
+    private final Executor executor;
+
+    /**
+     * @throws IllegalArgumentException if a dependency is missing from {@code handlers} or the
+     *                                  dependencies form a cycle
+     */
+    public ParallelValidationPipeline(List<? extends OrderValidationHandler> handlers, Executor executor,
+                                      MeterRegistry meterRegistry) {
+        if (handlers.isEmpty()) {
+            throw new IllegalArgumentException("A validation pipeline needs at least one handler");
+        }
+        List<OrderValidationHandler> sorted = topologicalOrder(handlers);
+        this.stages = new ArrayList<>(sorted.size());
+        this.dependencies = new int[sorted.size()][];
+        for (int i = 0; i < sorted.size(); i++) {
+            OrderValidationHandler handler = sorted.get(i);
+            stages.add(new TimedHandler(handler, meterRegistry));
+            dependencies[i] = handler.dependsOn().stream().mapToInt(type -> indexOf(sorted, type)).toArray();
+        }
+        this.executor = executor;
+    }
+
+    @Override
+    public void validate(Order order) {
+        ValidationReport report = evaluate(order);
+        if (!report.isValid()) {
+            throw new IllegalStateException(String.join("; ", report.failures()));
+        }
+    }
+
+    /**
+     * Runs every handler and reports each outcome. Returns as soon as one handler fails.
+     */
+    public ValidationReport evaluate(Order order) {
+        int count = stages.size();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+        AtomicReferenceArray<HandlerResult> results = new AtomicReferenceArray<>(count);
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        Thread[] running = new Thread[count];
+
+        // Stages are in dependency order, so every dependency's future already exists
+        for (int i = 0; i < count; i++) {
+            TimedHandler stage = stages.get(i);
+            int index = i;
+            CompletableFuture<?>[] before = new CompletableFuture<?>[dependencies[i].length];
+            for (int d = 0; d < before.length; d++) {
+                before[d] = futures[dependencies[i][d]];
+            }
+            futures[i] = CompletableFuture.allOf(before).thenRunAsync(() -> {
+                synchronized (running) {
+                    if (firstFailure.isDone()) {
+                        return;
+                    }
+                    running[index] = Thread.currentThread();
+                }
+                long start = System.nanoTime();
+                try {
+                    long elapsed = stage.validate(order);
+                    if (!stopped(running, index)) {
+                        results.set(index, new HandlerResult(stage.name(), Outcome.PASSED, null, elapsed));
+                    }
+                } catch (RuntimeException e) {
+                    if (!stopped(running, index)) {
+                        results.set(index, new HandlerResult(stage.name(), Outcome.FAILED, e.getMessage(),
+                                System.nanoTime() - start));
+                        firstFailure.complete(null);
+                    }
+                    throw e;
+                }
+            }, executor);
+        }
+
+        CompletableFuture.anyOf(CompletableFuture.allOf(futures), firstFailure)
+                .handle((ignored, error) -> null)
+                .join();
+        if (firstFailure.isDone()) {
+            for (CompletableFuture<?> future : futures) {
+                future.cancel(false);
+            }
+            synchronized (running) {
+                for (Thread thread : running) {
+                    if (thread != null) {
+                        thread.interrupt();
+                    }
+                }
+            }
+        }
+
+        List<HandlerResult> report = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HandlerResult result = results.get(i);
+            report.add(result != null ? result : new HandlerResult(stages.get(i).name(), Outcome.CANCELLED, null, 0));
+        }
+        return new ValidationReport(report);
+    }
+
+    /**
+     * Runs every handler over the batch concurrently. Each handler sees the orders rejected
+     * before the call and by its dependencies; the rejections are merged afterwards, keeping
+     * the message of the first handler (in dependency order) that rejected an order.
+     */
+    @Override
+    public void validateBatch(List<Order> orders, Map<Order, String> rejected) {
+        int count = stages.size();
+        Map<Order, String> initial = new IdentityHashMap<>(rejected);
+        List<CompletableFuture<Map<Order, String>>> outputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TimedHandler stage = stages.get(i);
+            List<CompletableFuture<Map<Order, String>>> before = new ArrayList<>(dependencies[i].length);
+            for (int dependency : dependencies[i]) {
+                before.add(outputs.get(dependency));
+            }
+            CompletableFuture<Void> ready = CompletableFuture.allOf(before.toArray(new CompletableFuture<?>[0]));
+            outputs.add(ready.thenApplyAsync(ignored -> {
+                Map<Order, String> input = new IdentityHashMap<>(initial);
+                for (CompletableFuture<Map<Order, String>> dependency : before) {
+                    dependency.join().forEach(input::putIfAbsent);
+                }
+                stage.validateBatch(orders, input);
+                return input;
+            }, executor));
+        }
+
+        try {
+            CompletableFuture.allOf(outputs.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        for (CompletableFuture<Map<Order, String>> output : outputs) {
+            output.join().forEach(rejected::putIfAbsent);
+        }
+    }
+
+    /**
+     * Marks a handler as no longer running and tells whether it was interrupted because
+     * another one failed. The interrupt is cleared under the same lock that sets it, so it
+     * never reaches the next task on this thread.
+     */
+    private static boolean stopped(Thread[] running, int index) {
+        synchronized (running) {
+            running[index] = null;
+            return Thread.interrupted();
+        }
+    }
+
+    public List<String> handlerNames() {
+        return stages.stream().map(TimedHandler::name).toList();
+    }
+
+    /**
+     * Orders handlers so that each comes after its dependencies, keeping the configured
+     * order otherwise.
+     */
+    private static List<OrderValidationHandler> topologicalOrder(List<? extends OrderValidationHandler> handlers) {
+        Map<OrderValidationHandler, Boolean> visiting = new IdentityHashMap<>();
+        Map<OrderValidationHandler, Boolean> done = new LinkedHashMap<>();
+        for (OrderValidationHandler handler : handlers) {
+            visit(handler, handlers, visiting, done);
+        }
+        return new ArrayList<>(done.keySet());
+    }
+
+    private static void visit(OrderValidationHandler handler, List<? extends OrderValidationHandler> handlers,
+                              Map<OrderValidationHandler, Boolean> visiting,
+                              Map<OrderValidationHandler, Boolean> done) {
+        if (done.containsKey(handler)) {
+            return;
+        }
+        if (visiting.put(handler, Boolean.TRUE) != null) {
+            throw new IllegalArgumentException("Validation handlers have a dependency cycle through "
+                    + handler.getClass().getSimpleName());
+        }
+        for (Class<? extends OrderValidationHandler> type : handler.dependsOn()) {
+            visit(handlers.get(indexOf(handlers, type)), handlers, visiting, done);
+        }
+        done.put(handler, Boolean.TRUE);
+    }
+
+    private static int indexOf(List<? extends OrderValidationHandler> handlers,
+                               Class<? extends OrderValidationHandler> type) {
+        for (int i = 0; i < handlers.size(); i++) {
+            if (type.isInstance(handlers.get(i))) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Missing validation handler dependency: " + type.getSimpleName());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 /**
  * Chain of Responsibility handler for validating payment details.
  * Validates that payment method is set and total amount is valid.
+ * Needs no database access, so the chain runs it before the inventory check.
  */
 @Component
 @Slf4j
@@ -17,7 +18,7 @@ public class PaymentValidationHandler extends OrderValidationHandler {
         log.info("Validating payment details for order");
 
         // Validate payment details
-        if (order.getTotalAmount() <= 0) {
+        if (order.getTotalAmount() == null || !order.getTotalAmount().isPositive()) {
             log.warn("Invalid order total amount: {}", order.getTotalAmount());
             throw new IllegalStateException("Order total amount must be greater than 0");
         }
@@ -27,9 +28,6 @@ public class PaymentValidationHandler extends OrderValidationHandler {
             throw new IllegalStateException("Customer name is required");
         }
 
-        log.info("Payment validation passed. Total amount: ${}", order.getTotalAmount());
-
-        // Pass to next handler in the chain
-        super.validate(order);
+        log.info("Payment validation passed. Total amount: {}", order.getTotalAmount());
     }
 }
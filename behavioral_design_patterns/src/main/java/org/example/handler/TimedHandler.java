@@ -0,0 +1,67 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.model.Order;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A validation handler together with its latency timers, shared by the sequential
+ * chain and the parallel pipeline so both report the same metrics.
+ */
+final class TimedHandler {
+
+    private final OrderValidationHandler handler;
+    private final String name;
+    private final Timer passed;
+    private final Timer failed;
+    private final Timer batch;
+
+    TimedHandler(OrderValidationHandler handler, MeterRegistry meterRegistry) {
+        this.handler = handler;
+        this.name = handler.getClass().getSimpleName();
+        this.passed = timer(meterRegistry, "orders.validation.handler", "passed");
+        this.failed = timer(meterRegistry, "orders.validation.handler", "failed");
+        this.batch = timer(meterRegistry, "orders.validation.handler.batch", "completed");
+    }
+
+    OrderValidationHandler handler() {
+        return handler;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * Runs the handler and returns how long it took.
+     *
+     * @throws IllegalStateException if the handler rejects the order
+     */
+    long validate(Order order) {
+        long start = System.nanoTime();
+        try {
+            handler.validate(order);
+        } catch (RuntimeException e) {
+            failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        passed.record(elapsed, TimeUnit.NANOSECONDS);
+        return elapsed;
+    }
+
+    void validateBatch(List<Order> orders, Map<Order, String> rejected) {
+        batch.record(() -> handler.validateBatch(orders, rejected));
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, String metric, String outcome) {
+        return Timer.builder(metric)
+                .tag("handler", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.model.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, precomposed Chain of Responsibility over {@link OrderValidationHandler}s.
+ * Each link holds one handler and the rest of the chain; an order that passes a handler
+ * is passed on, and the first failure stops it. The chain is built once and shared by
+ * all requests, so nothing is mutated per call. Every handler is timed separately.
+ */
+public final class ValidationChain implements OrderValidator {
+
+    private final TimedHandler handler;
+    private final ValidationChain next;
+
+    private ValidationChain(OrderValidationHandler handler, ValidationChain next, MeterRegistry meterRegistry) {
+        this.handler = new TimedHandler(handler, meterRegistry);
+        this.next = next;
+    }
+
+    /**
+     * Links the handlers in the given order.
+     *
+     * @throws IllegalArgumentException if no handler is given
+     */
+    public static ValidationChain of(List<? extends OrderValidationHandler> handlers, MeterRegistry meterRegistry) {
+        if (handlers.isEmpty()) {
+            throw new IllegalArgumentException("A validation chain needs at least one handler");
+        }
+        ValidationChain chain = null;
+        for (int i = handlers.size() - 1; i >= 0; i--) {
+            chain = new ValidationChain(handlers.get(i), chain, meterRegistry);
+        }
+        return chain;
+    }
+
+    /**
+     * Runs the order through every handler in turn.
+     *
+     * @throws IllegalStateException from the first handler that rejects the order
+     */
+    @Override
+    public void validate(Order order) {
+        handler.validate(order);
+
+        // Pass to next handler in the chain
+        if (next != null) {
+            next.validate(order);
+        }
+    }
+
+    /**
+     * Runs a batch through every handler in turn; each handler only sees the orders
+     * that are not in {@code rejected} yet.
+     */
+    @Override
+    public void validateBatch(List<Order> orders, Map<Order, String> rejected) {
+        handler.validateBatch(orders, rejected);
+
+        // Pass the surviving orders to the next handler in the chain
+        if (next != null && rejected.size() < orders.size()) {
+            next.validateBatch(orders, rejected);
+        }
+    }
+
+    /**
+     * Handler class names from the first link to the last.
+     */
+    public List<String> handlerNames() {
+        List<String> names = new ArrayList<>();
+        for (ValidationChain link = this; link != null; link = link.next) {
+            names.add(link.handler.name());
+        }
+        return names;
+    }
+}
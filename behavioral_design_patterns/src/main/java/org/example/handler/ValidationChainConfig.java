@@ -0,0 +1,90 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the order validator once at startup from {@code orders.validation.chain},
+ * a comma-separated list of handler bean names in the order they should run.
+ * In {@code chain} mode the handlers run one after another with cheap in-memory checks
+ * first, so invalid requests are rejected before any query; in {@code parallel} mode
+ * independent handlers run concurrently on the validation executor, and the first failure
+ * cancels the rest. The default handlers are independent: the payment and inventory checks
+ * run side by side.
+ */
+@Configuration
+@Slf4j
+public class ValidationChainConfig {
+
+    @Bean
+    public OrderValidator orderValidator(
+            Map<String, OrderValidationHandler> handlers,
+            @Value("${orders.validation.chain:paymentValidationHandler,inventoryCheckHandler}") List<String> handlerNames,
+            @Value("${orders.validation.mode:chain}") String mode,
+            ObjectProvider<ThreadPoolExecutor> validationExecutor,
+            MeterRegistry meterRegistry) {
+        List<OrderValidationHandler> links = new ArrayList<>(handlerNames.size());
+        for (String name : handlerNames) {
+            OrderValidationHandler handler = handlers.get(name.trim());
+            if (handler == null) {
+                throw new IllegalStateException("Unknown validation handler '" + name.trim()
+                        + "' in orders.validation.chain, available: " + handlers.keySet());
+            }
+            links.add(handler);
+        }
+
+        if ("parallel".equalsIgnoreCase(mode)) {
+            ParallelValidationPipeline pipeline = new ParallelValidationPipeline(links,
+                    validationExecutor.getObject(), meterRegistry);
+            log.info("Order validation pipeline (parallel): {}", pipeline.handlerNames());
+            return pipeline;
+        }
+        if (!"chain".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("orders.validation.mode must be 'chain' or 'parallel', was: " + mode);
+        }
+        ValidationChain chain = ValidationChain.of(links, meterRegistry);
+        log.info("Order validation chain: {}", String.join(" -> ", chain.handlerNames()));
+        return chain;
+    }
+
+    /**
+     * Thread pool of the parallel pipeline, only created in {@code parallel} mode. With virtual
+     * threads enabled (Java 21+) every handler gets a new virtual thread instead, which is not
+     * kept once the handler returns. Shut down with the context, interrupting handlers still running.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(name = "orders.validation.mode", havingValue = "parallel")
+    public ThreadPoolExecutor validationExecutor(@Value("${orders.validation.parallelism:8}") int parallelism,
+                                                 Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                    new VirtualThreadTaskExecutor("validate-").getVirtualThreadFactory());
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "validate-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
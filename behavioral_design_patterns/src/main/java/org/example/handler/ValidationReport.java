@@ -0,0 +1,30 @@
+package org.example.handler;
+
+import java.util.List;
+
+/**
+ * Outcome of every handler for one order, as collected by the {@link ParallelValidationPipeline}.
+ */
+public record ValidationReport(List<HandlerResult> results) {
+
+    public enum Outcome {
+        PASSED,
+        FAILED,
+        /** Not run (or not waited for) because another handler failed first. */
+        CANCELLED
+    }
+
+    public record HandlerResult(String handler, Outcome outcome, String message, long durationNanos) {
+    }
+
+    public boolean isValid() {
+        return results.stream().allMatch(result -> result.outcome() == Outcome.PASSED);
+    }
+
+    public List<String> failures() {
+        return results.stream()
+                .filter(result -> result.outcome() == Outcome.FAILED)
+                .map(HandlerResult::message)
+                .toList();
+    }
+}
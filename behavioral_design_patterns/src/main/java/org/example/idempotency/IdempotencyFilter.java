@@ -0,0 +1,249 @@
+package org.example.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Makes order-changing requests safe to retry. A POST to /api/orders, /api/orders/batch,
+ * /api/orders/{id}/place, /cancel or /pay that carries an {@code Idempotency-Key} header runs at most once per key:
+ * a retry gets the stored response back (marked {@code Idempotent-Replayed: true}) without
+ * the command or the payment strategy running again. While the first request is still running
+ * a retry gets 409, and reusing a key for a different request gets 422.
+ * Only successful responses are stored; after a failure the key is released so the client can
+ * retry. Requests without the header are passed through untouched.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile("/api/orders(/batch|/\\d+/(place|cancel|pay))?/?");
+    private static final String KEY_ATTRIBUTE = IdempotencyFilter.class.getName() + ".key";
+    private static final String FINGERPRINT_ATTRIBUTE = IdempotencyFilter.class.getName() + ".fingerprint";
+    private static final String CLAIMED_AT_ATTRIBUTE = IdempotencyFilter.class.getName() + ".claimedAt";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !IDEMPOTENT_PATHS.matcher(pathOf(request)).matches();
+    }
+
+    /**
+     * /pay completes asynchronously, so its response is only known on the async dispatch.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            String key = (String) request.getAttribute(KEY_ATTRIBUTE);
+            try {
+                chain.doFilter(request, response);
+            } catch (ServletException | IOException | RuntimeException e) {
+                if (key != null) {
+                    store.release(key, claimedAt(request));
+                }
+                throw e;
+            }
+            if (key != null && !isAsyncStarted(request)) {
+                finish(request, response);
+            }
+            return;
+        }
+
+        String key = request.getHeader(HEADER);
+        if (key == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getInputStream().readAllBytes();
+        String fingerprint = fingerprint(request.getMethod(), pathOf(request), body);
+        IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+        switch (claim.outcome()) {
+            case REPLAY -> replay(key, fingerprint, claim.response(), response);
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still in progress");
+            case ACQUIRED -> execute(key, fingerprint, claim.claimedAt(), new BufferedBodyRequest(request, body),
+                    response, chain);
+        }
+    }
+
+    private void execute(String key, String fingerprint, long claimedAt, HttpServletRequest request,
+                         HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        request.setAttribute(KEY_ATTRIBUTE, key);
+        request.setAttribute(FINGERPRINT_ATTRIBUTE, fingerprint);
+        request.setAttribute(CLAIMED_AT_ATTRIBUTE, claimedAt);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.release(key, claimedAt);
+            throw e;
+        }
+        if (!isAsyncStarted(request)) {
+            finish(request, cachingResponse);
+        }
+    }
+
+    /**
+     * Stores a successful response under the request's key, or releases the key, then sends the response.
+     * A 202 is not final (a payment still pending), so a retry with the same key runs again.
+     */
+    private void finish(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = (String) request.getAttribute(KEY_ATTRIBUTE);
+        long claimedAt = claimedAt(request);
+        ContentCachingResponseWrapper cachingResponse =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (cachingResponse == null) {
+            store.release(key, claimedAt);
+            return;
+        }
+        int status = cachingResponse.getStatus();
+        if (status >= 200 && status < 300 && status != HttpStatus.ACCEPTED.value()) {
+            store.complete(key, claimedAt, new StoredResponse((String) request.getAttribute(FINGERPRINT_ATTRIBUTE),
+                    status, cachingResponse.getContentType(), cachingResponse.getContentAsByteArray()));
+        } else {
+            store.release(key, claimedAt);
+        }
+        cachingResponse.copyBodyToResponse();
+    }
+
+    private void replay(String key, String fingerprint, StoredResponse stored, HttpServletResponse response)
+            throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            log.warn("Idempotency key {} reused for a different request", key);
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+            return;
+        }
+        log.debug("Replaying stored response for idempotency key {}", key);
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.body() != null) {
+            response.setContentLength(stored.body().length);
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", status.getReasonPhrase(), "message", message));
+    }
+
+    private static long claimedAt(HttpServletRequest request) {
+        return (Long) request.getAttribute(CLAIMED_AT_ATTRIBUTE);
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Serves a request body that has already been read, so it can be fingerprinted before the handler runs.
+     */
+    private static class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.IdempotencyRecord;
+import org.example.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Claims and responses of idempotent requests, kept in the idempotency_keys table.
+ * A request claims its key by inserting the key's row, so the table's primary key lets
+ * only one request run per key, whichever instance it reaches; the row gets the response
+ * when the request succeeds and is deleted when it fails. Both writes are fenced by the
+ * claim's time, so a request whose claim was taken over can no longer touch the row.
+ * Stored responses never change, so they are also kept in a bounded in-memory cache and a
+ * retry on the same instance is replayed without touching the database.
+ * A claim older than {@code idempotency.in-flight-timeout} belongs to a request that was
+ * abandoned (for example by an instance that stopped) and can be taken over, so it never
+ * blocks its key for good.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    static final String CACHE_NAME = "idempotency";
+
+    public enum Outcome {
+        /** The caller owns the key and must either {@link #complete} or {@link #release} its claim. */
+        ACQUIRED,
+        /** Another request with the same key is still running. */
+        IN_PROGRESS,
+        /** The key already has a response, which should be replayed. */
+        REPLAY
+    }
+
+    /**
+     * @param claimedAt when an {@link Outcome#ACQUIRED acquired} key was claimed, to be passed back
+     *                  to {@link #complete} or {@link #release}
+     */
+    public record Claim(Outcome outcome, StoredResponse response, long claimedAt) {
+    }
+
+    private static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null, 0);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration retention;
+    private final Duration inFlightTimeout;
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${idempotency.cache.maximum-size:10000}") long maximumSize,
+                            @Value("${idempotency.retention:24h}") Duration retention,
+                            @Value("${idempotency.in-flight-timeout:1m}") Duration inFlightTimeout,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.retention = retention;
+        this.inFlightTimeout = inFlightTimeout;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    /**
+     * Claims a key for a request that is about to run, or returns what is already known about it.
+     *
+     * @param fingerprint fingerprint of the request, stored with the claim
+     */
+    public Claim claim(String key, String fingerprint) {
+        StoredResponse response = responses.getIfPresent(key);
+        if (response != null) {
+            return new Claim(Outcome.REPLAY, response, 0);
+        }
+        long now = System.currentTimeMillis();
+        try {
+            if (repository.insertClaim(key, fingerprint, now) == 1) {
+                return new Claim(Outcome.ACQUIRED, null, now);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Another request inserted the same new key at the same moment
+            return IN_PROGRESS;
+        }
+        // Another request has claimed the key, here or on another instance
+        return repository.findById(key)
+                .map(record -> existing(record, fingerprint, now))
+                .orElse(IN_PROGRESS);
+    }
+
+    /**
+     * Stores the response of a claimed key; later requests with the key replay it.
+     * Nothing is stored if the claim has been taken over in the meantime.
+     */
+    public void complete(String key, long claimedAt, StoredResponse response) {
+        if (repository.saveResponse(key, claimedAt, response.status(), response.contentType(), response.body()) == 0) {
+            log.warn("Idempotency key {} was taken over before its response was stored", key);
+            return;
+        }
+        responses.put(key, response);
+    }
+
+    /**
+     * Gives up a claimed key without storing a response, so the request can be retried.
+     * A claim that has been taken over in the meantime is left to its new owner.
+     */
+    public void release(String key, long claimedAt) {
+        if (repository.deleteClaim(key, claimedAt) == 0) {
+            log.debug("Idempotency key {} was no longer claimed by this request when it was released", key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(expiryCutoff());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    /**
+     * What to do with a key that already has a record: replay its response, wait for its
+     * request, or take the key over when the record has expired.
+     */
+    private Claim existing(IdempotencyRecord record, String fingerprint, long now) {
+        boolean expired = record.isComplete()
+                ? record.getCreatedAt() < expiryCutoff()
+                : record.getCreatedAt() < now - inFlightTimeout.toMillis();
+        if (!expired) {
+            if (!record.isComplete()) {
+                return IN_PROGRESS;
+            }
+            StoredResponse response = StoredResponse.of(record);
+            responses.put(record.getId(), response);
+            return new Claim(Outcome.REPLAY, response, 0);
+        }
+        // A new claim time, even within the same millisecond, so the old claim's writes are fenced off
+        long claimedAt = Math.max(now, record.getCreatedAt() + 1);
+        if (repository.takeOver(record.getId(), fingerprint, record.getCreatedAt(), claimedAt) == 1) {
+            log.info("Took over expired idempotency key {}", record.getId());
+            return new Claim(Outcome.ACQUIRED, null, claimedAt);
+        }
+        return IN_PROGRESS;
+    }
+
+    private long expiryCutoff() {
+        return System.currentTimeMillis() - retention.toMillis();
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.idempotency;
+
+import org.example.model.IdempotencyRecord;
+
+/**
+ * A response kept for replay, together with the fingerprint of the request that produced it.
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+
+    static StoredResponse of(IdempotencyRecord record) {
+        return new StoredResponse(record.getFingerprint(), record.getResponseStatus(), record.getContentType(),
+                record.getResponseBody());
+    }
+}
@@ -0,0 +1,234 @@
+package org.example.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional hot-product mode for flash sales.
+ * Each instance sells the products listed in {@code inventory.hot.products} from its own
+ * {@link ShardedStock}, filled with allotments taken from the product row by the same
+ * conditional UPDATE that row-level takes use. An allotment is withdrawn in the transaction
+ * of the take that found the counters empty, and only reaches the counters once that
+ * transaction commits, so the row is never pushed below zero and several instances with the
+ * same product hot can never sell more than the row gave out. The row holds the units no
+ * instance has taken yet; a scheduled flush returns what a counter holds beyond one allotment
+ * (e.g. after cancellations), and shutdown returns everything. A crashed instance strands at
+ * most its unsold allotment, which the row then under-reports, but it never oversells.
+ */
+@Component
+@Slf4j
+public class HotStockCounters {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<String> configuredProducts;
+    private final int shards;
+    private final int allotment;
+    private final Map<Long, ShardedStock> hotStock = new ConcurrentHashMap<>();
+    private final Counter rejected;
+    private final Counter refills;
+
+    public HotStockCounters(ProductRepository productRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.hot.products:}") List<String> configuredProducts,
+                            @Value("${inventory.hot.shards:0}") int shards,
+                            @Value("${inventory.hot.allotment:100}") int allotment) {
+        if (allotment < 1) {
+            throw new IllegalArgumentException("inventory.hot.allotment must be at least 1");
+        }
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.configuredProducts = configuredProducts;
+        // 0 means one shard per core
+        this.shards = shards > 0 ? shards : Runtime.getRuntime().availableProcessors();
+        this.allotment = allotment;
+        this.rejected = meterRegistry.counter("inventory.hot.rejected");
+        this.refills = meterRegistry.counter("inventory.hot.refills");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void enableConfigured() {
+        for (String name : configuredProducts) {
+            if (name.isBlank()) {
+                continue;
+            }
+            productRepository.findByName(name.trim()).ifPresentOrElse(this::enable,
+                    () -> log.warn("Hot product {} does not exist, ignoring", name));
+        }
+    }
+
+    /**
+     * Starts selling the product from counters, which take their first allotment on the first take.
+     */
+    public void enable(Product product) {
+        hotStock.computeIfAbsent(product.getId(), id -> {
+            ShardedStock counters = new ShardedStock(0, shards);
+            Gauge.builder("inventory.hot.available", counters, ShardedStock::available)
+                    .tag("product", product.getName())
+                    .register(meterRegistry);
+            log.info("Product {} is hot: allotments of {} units split across {} counters",
+                    product.getName(), allotment, shards);
+            return counters;
+        });
+    }
+
+    /**
+     * Returns the product's counters to its row and goes back to row-level updates.
+     * Call once the product no longer takes traffic.
+     */
+    public void disable(Long productId) {
+        ShardedStock counters = hotStock.remove(productId);
+        if (counters != null) {
+            returnToRow(productId, counters, counters.drain());
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return hotStock.containsKey(productId);
+    }
+
+    /**
+     * Takes units from a hot product's counters, or straight from a new allotment if the
+     * counters are short. Joins the caller's transaction: units taken from the counters go
+     * back if it rolls back, and the rest of a new allotment only reaches the counters once
+     * it commits.
+     *
+     * @return false if neither the counters nor the row have enough units
+     * @throws IllegalArgumentException if the product is not hot
+     */
+    public boolean tryTake(Long productId, int quantity) {
+        ShardedStock counters = counters(productId);
+        if (counters.tryTake(quantity)) {
+            afterRollback(() -> counters.give(quantity));
+            return true;
+        }
+        if (refill(productId, counters, quantity)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void give(Long productId, int quantity) {
+        counters(productId).give(quantity);
+    }
+
+    /**
+     * Units this instance can sell without going to the row.
+     */
+    public long available(Long productId) {
+        return counters(productId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval-ms:500}")
+    public void flush() {
+        hotStock.forEach((productId, counters) -> {
+            long surplus = counters.available() - allotment;
+            if (surplus > 0 && counters.tryTake(surplus)) {
+                returnToRow(productId, counters, surplus);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hotStock.forEach((productId, counters) -> returnToRow(productId, counters, counters.drain()));
+        log.info("Returned {} hot product counters to their rows", hotStock.size());
+    }
+
+    /**
+     * Withdraws a full allotment (or at least {@code quantity}) from the row, keeps
+     * {@code quantity} of it for the caller and adds the rest to the counters after commit.
+     */
+    private boolean refill(Long productId, ShardedStock counters, int quantity) {
+        int withdrawal = Math.max(allotment, quantity);
+        if (!withdraw(productId, withdrawal)) {
+            // Less than a full allotment left: take just what the caller needs
+            if (withdrawal == quantity || !withdraw(productId, quantity)) {
+                return false;
+            }
+            withdrawal = quantity;
+        }
+        refills.increment();
+        int rest = withdrawal - quantity;
+        if (rest > 0) {
+            afterCommit(() -> counters.give(rest));
+        }
+        log.debug("Took an allotment of {} units of hot product {}", withdrawal, productId);
+        return true;
+    }
+
+    private boolean withdraw(Long productId, int units) {
+        Integer updated = transactionTemplate.execute(status -> productRepository.decrementStock(productId, units));
+        return updated != null && updated > 0;
+    }
+
+    private void returnToRow(Long productId, ShardedStock counters, long units) {
+        if (units == 0) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.incrementStock(productId, Math.toIntExact(units)));
+            log.debug("Returned {} units of hot product {} to its row", units, productId);
+        } catch (RuntimeException e) {
+            // Keep the units sellable here rather than losing them
+            counters.give(units);
+            throw e;
+        }
+    }
+
+    private ShardedStock counters(Long productId) {
+        ShardedStock counters = hotStock.get(productId);
+        if (counters == null) {
+            throw new IllegalArgumentException("Product is not hot: " + productId);
+        }
+        return counters;
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.inventory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of the committed stock holds, mirroring the stock_reservations table.
+ * Held units per product are kept in lock-striped segments, so holds on different
+ * products never contend on the same lock. The ledger also knows the earliest expiry,
+ * which lets the sweeper skip the database entirely while nothing has expired.
+ * It is only updated after commit; the table stays the source of truth.
+ */
+@Component
+public class ReservationLedger {
+
+    private static final int STRIPES = 32;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final List<Map<Long, Long>> heldUnits = new ArrayList<>(STRIPES);
+    private final Map<Long, OrderHolds> holdsByOrder = new ConcurrentHashMap<>();
+    private final NavigableSet<OrderHolds> byExpiry = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(OrderHolds::expiresAt).thenComparingLong(OrderHolds::orderId));
+
+    public ReservationLedger(MeterRegistry meterRegistry) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            heldUnits.add(new HashMap<>());
+        }
+        Gauge.builder("inventory.reservations.active", holdsByOrder, Map::size)
+                .description("Orders currently holding stock")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.held_units", this, ReservationLedger::totalHeldUnits)
+                .description("Units of stock currently held for pending orders")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the holds of one order. Called once the transaction that took them has committed.
+     */
+    public void record(Long orderId, long expiresAt, Map<Long, Integer> unitsByProduct) {
+        OrderHolds holds = new OrderHolds(orderId, expiresAt, new ConcurrentHashMap<>(unitsByProduct));
+        OrderHolds previous = holdsByOrder.put(orderId, holds);
+        if (previous != null) {
+            byExpiry.remove(previous);
+            previous.unitsByProduct().forEach((productId, units) -> adjust(productId, -units));
+        }
+        byExpiry.add(holds);
+        unitsByProduct.forEach((productId, units) -> adjust(productId, units));
+    }
+
+    /**
+     * Forgets some of an order's held units, e.g. after the sweeper released part of them.
+     */
+    public void release(Long orderId, Long productId, int units) {
+        OrderHolds holds = holdsByOrder.get(orderId);
+        if (holds == null) {
+            return;
+        }
+        int[] released = new int[1];
+        holds.unitsByProduct().computeIfPresent(productId, (id, held) -> {
+            released[0] = Math.min(held, units);
+            return held > units ? held - units : null;
+        });
+        if (released[0] > 0) {
+            adjust(productId, -released[0]);
+        }
+        if (holds.unitsByProduct().isEmpty()) {
+            clear(orderId);
+        }
+    }
+
+    /**
+     * Forgets every hold of an order, after it was placed or cancelled.
+     */
+    public void clear(Long orderId) {
+        OrderHolds holds = holdsByOrder.remove(orderId);
+        if (holds != null) {
+            byExpiry.remove(holds);
+            holds.unitsByProduct().forEach((productId, units) -> adjust(productId, -units));
+        }
+    }
+
+    /**
+     * Forgets every hold that expired before {@code now}.
+     */
+    public void clearExpired(long now) {
+        while (hasExpired(now)) {
+            clear(byExpiry.first().orderId());
+        }
+    }
+
+    public long heldUnits(Long productId) {
+        int stripe = stripe(productId);
+        locks[stripe].lock();
+        try {
+            return heldUnits.get(stripe).getOrDefault(productId, 0L);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /**
+     * Returns true if some recorded hold has expired at {@code now}.
+     */
+    public boolean hasExpired(long now) {
+        OrderHolds earliest = byExpiry.isEmpty() ? null : byExpiry.first();
+        return earliest != null && earliest.expiresAt() < now;
+    }
+
+    private void adjust(Long productId, long delta) {
+        int stripe = stripe(productId);
+        locks[stripe].lock();
+        try {
+            heldUnits.get(stripe).merge(productId, delta, (held, d) -> held + d == 0 ? null : held + d);
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    private double totalHeldUnits() {
+        long total = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            locks[stripe].lock();
+            try {
+                for (long units : heldUnits.get(stripe).values()) {
+                    total += units;
+                }
+            } finally {
+                locks[stripe].unlock();
+            }
+        }
+        return total;
+    }
+
+    private static int stripe(Long productId) {
+        return Math.floorMod(Long.hashCode(productId) * 0x9E3779B9, STRIPES);
+    }
+
+    private record OrderHolds(Long orderId, long expiresAt, Map<Long, Integer> unitsByProduct) {
+    }
+}
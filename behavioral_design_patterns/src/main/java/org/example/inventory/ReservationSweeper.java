@@ -0,0 +1,39 @@
+package org.example.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically gives back stock held by orders that were never placed.
+ * Expired holds are released in batches, each batch in its own transaction.
+ */
+@Component
+@Slf4j
+public class ReservationSweeper {
+
+    private final StockReservationService reservationService;
+    private final int batchSize;
+
+    public ReservationSweeper(StockReservationService reservationService,
+                              @Value("${inventory.reservations.sweep-batch-size:100}") int batchSize) {
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLedger() {
+        reservationService.rebuildLedger();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:1000}")
+    public void sweep() {
+        // Keep releasing while full batches come back, then wait for the next tick
+        while (reservationService.releaseExpired(batchSize) == batchSize) {
+            log.debug("Expired hold batch full, sweeping next batch");
+        }
+    }
+}
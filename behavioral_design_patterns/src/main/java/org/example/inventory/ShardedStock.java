@@ -0,0 +1,122 @@
+package org.example.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The stock of one product split across several counters, so concurrent takers
+ * mostly update different cache lines instead of queueing on one row lock.
+ * Each thread starts at its own home shard and falls back to the others; all
+ * updates are lock-free compare-and-set loops and no shard ever goes negative,
+ * so the total can never be oversold. Under heavy contention a request for more
+ * than any single shard holds may be refused while units are in flight between shards.
+ */
+public final class ShardedStock {
+
+    // 16 longs = 128 bytes between shards, so two shards never share a cache line
+    private static final int PAD = 16;
+
+    private final AtomicLongArray cells;
+    private final int shards;
+
+    public ShardedStock(long initial, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("shards must be at least 1");
+        }
+        if (initial < 0) {
+            throw new IllegalArgumentException("initial stock must not be negative");
+        }
+        this.shards = shards;
+        this.cells = new AtomicLongArray(shards * PAD);
+        for (int shard = 0; shard < shards; shard++) {
+            cells.set(index(shard), initial / shards + (shard < initial % shards ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code quantity} units if that many are available.
+     *
+     * @return true if the units were taken, false if stock is short (nothing is taken then)
+     */
+    public boolean tryTake(long quantity) {
+        int home = home();
+        // Fast path: one shard covers the whole request
+        for (int i = 0; i < shards; i++) {
+            int index = index((home + i) % shards);
+            long available;
+            while ((available = cells.get(index)) >= quantity) {
+                if (cells.compareAndSet(index, available, available - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        // Slow path: gather the request from several shards, and put it all back if it falls short
+        long remaining = quantity;
+        long[] takenFrom = new long[shards];
+        for (int i = 0; i < shards && remaining > 0; i++) {
+            int shard = (home + i) % shards;
+            int index = index(shard);
+            long available;
+            while ((available = cells.get(index)) > 0) {
+                long take = Math.min(available, remaining);
+                if (cells.compareAndSet(index, available, available - take)) {
+                    takenFrom[shard] = take;
+                    remaining -= take;
+                    break;
+                }
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        for (int shard = 0; shard < shards; shard++) {
+            if (takenFrom[shard] > 0) {
+                cells.addAndGet(index(shard), takenFrom[shard]);
+            }
+        }
+        return false;
+    }
+
+    public void give(long quantity) {
+        cells.addAndGet(index(home()), quantity);
+    }
+
+    /**
+     * Empties every shard.
+     *
+     * @return the units that were taken
+     */
+    public long drain() {
+        long total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            total += cells.getAndSet(index(shard), 0);
+        }
+        return total;
+    }
+
+    /**
+     * Sum of all shards. Exact when no update is in flight, otherwise a close snapshot.
+     */
+    public long available() {
+        long total = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            total += cells.get(index(shard));
+        }
+        return total;
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    private int home() {
+        // Identity hash rather than the thread id: Thread.getId() is deprecated from Java 19 and
+        // threadId() does not exist on Java 17
+        long id = System.identityHashCode(Thread.currentThread());
+        return (int) Math.floorMod(id * 0x9E3779B97F4A7C15L >>> 32, (long) shards);
+    }
+
+    private static int index(int shard) {
+        return shard * PAD;
+    }
+}
@@ -0,0 +1,348 @@
+package org.example.inventory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.catalog.CatalogEntry;
+import org.example.catalog.ProductCatalog;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.StockReservation;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Takes, converts and releases stock holds for orders.
+ * A hold subtracts its units from the product row immediately (with the same conditional
+ * UPDATE that placement used), so held stock can never be sold twice, and records a
+ * reservation row with an expiry. Placing the order deletes the rows; an expired row is
+ * deleted by the sweeper, which puts the units back. Product rows are always updated in
+ * id order so concurrent holders cannot deadlock each other. Hot products
+ * ({@link HotStockCounters}) are taken from and returned to in-memory counters instead,
+ * which only update the row when they withdraw or return an allotment.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ProductCatalog productCatalog;
+    private final ReservationLedger ledger;
+    private final HotStockCounters hotStockCounters;
+    private final long ttlMillis;
+    private final Counter expired;
+    private final Counter rowShortages;
+    private final Counter hotShortages;
+
+    public StockReservationService(ProductRepository productRepository,
+                                   StockReservationRepository reservationRepository,
+                                   ProductCatalog productCatalog,
+                                   ReservationLedger ledger,
+                                   HotStockCounters hotStockCounters,
+                                   @Value("${inventory.reservations.ttl:15m}") Duration ttl,
+                                   MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.productCatalog = productCatalog;
+        this.ledger = ledger;
+        this.hotStockCounters = hotStockCounters;
+        this.ttlMillis = ttl.toMillis();
+        this.expired = meterRegistry.counter("inventory.reservations.expired");
+        this.rowShortages = meterRegistry.counter("inventory.stock.conflicts", "store", "row");
+        this.hotShortages = meterRegistry.counter("inventory.stock.conflicts", "store", "hot");
+    }
+
+    /**
+     * Holds stock for every item of a saved order, or for none of them.
+     *
+     * @throws IllegalStateException if a product is unknown or short; units already
+     *                               taken for this order are returned first
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Order order) {
+        hold(order).ifPresent(reason -> {
+            throw new IllegalStateException(reason);
+        });
+    }
+
+    /**
+     * Like {@link #reserve(Order)}, but reports an unknown or short product as the returned
+     * reason instead of throwing. An exception leaving this proxy would mark the caller's
+     * transaction rollback-only, so a batch that rejects one order and commits the rest
+     * must use this method.
+     *
+     * @return empty if the stock is held, otherwise why it could not be
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<String> tryReserve(Order order) {
+        return hold(order);
+    }
+
+    private Optional<String> hold(Order order) {
+        Map<Long, Integer> quantities;
+        try {
+            quantities = quantitiesByProductId(order);
+        } catch (IllegalStateException e) {
+            return Optional.of(e.getMessage());
+        }
+        Map<Long, Integer> taken = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (!take(entry.getKey(), entry.getValue())) {
+                // Give back what this order already took so a batch can carry on without it
+                taken.forEach(this::give);
+                String productName = productName(order, entry.getKey());
+                log.warn("Cannot hold {} units of {} for order {}", entry.getValue(), productName, order.getId());
+                return Optional.of("Insufficient stock for product: " + productName);
+            }
+            taken.put(entry.getKey(), entry.getValue());
+        }
+
+        long expiresAt = System.currentTimeMillis() + ttlMillis;
+        List<StockReservation> holds = new ArrayList<>(taken.size());
+        taken.forEach((productId, quantity) ->
+                holds.add(new StockReservation(order.getId(), productId, quantity, expiresAt)));
+        reservationRepository.saveAll(holds);
+        log.debug("Order {} holds stock for {} products until {}", order.getId(), holds.size(), expiresAt);
+
+        Long orderId = order.getId();
+        afterCommit(() -> ledger.record(orderId, expiresAt, taken));
+        return Optional.empty();
+    }
+
+    /**
+     * Turns the order's holds into a permanent stock reduction. Units whose hold has
+     * already expired (or that were never held) are taken now with a conditional UPDATE.
+     *
+     * @throws IllegalStateException if a product is unknown or short
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void convert(Order order) {
+        Map<Long, Integer> held = deleteHolds(order.getId());
+        // Positive: units still to take; negative: held units the order no longer needs
+        Map<Long, Integer> difference = new TreeMap<>(quantitiesByProductId(order));
+        held.forEach((productId, units) -> difference.merge(productId, -units, Integer::sum));
+        for (Map.Entry<Long, Integer> entry : difference.entrySet()) {
+            if (entry.getValue() < 0) {
+                give(entry.getKey(), -entry.getValue());
+            } else if (entry.getValue() > 0) {
+                if (!take(entry.getKey(), entry.getValue())) {
+                    log.warn("Insufficient stock for product {} (requested: {})", entry.getKey(), entry.getValue());
+                    throw new IllegalStateException("Insufficient stock for product: "
+                            + productName(order, entry.getKey()));
+                }
+                log.debug("Order {} had no hold for {} units of product {}, took them directly",
+                        order.getId(), entry.getValue(), entry.getKey());
+            }
+        }
+
+        Long orderId = order.getId();
+        afterCommit(() -> ledger.clear(orderId));
+    }
+
+    /**
+     * Locks the stock rows that the given orders can change, in product id order. A
+     * transaction that changes the stock of several orders calls this first, so it takes its
+     * row locks in the same order as every other writer and cannot deadlock with them.
+     * Hot products are locked too, since a take may have to withdraw a new allotment from
+     * their row; unknown products are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockStock(Collection<Order> orders) {
+        Set<String> names = new HashSet<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                names.add(item.getProductName());
+            }
+        }
+        Set<Long> productIds = new TreeSet<>();
+        for (CatalogEntry product : productCatalog.findAll(names).values()) {
+            productIds.add(product.id());
+        }
+        if (!productIds.isEmpty()) {
+            productRepository.lockInIdOrder(productIds);
+        }
+    }
+
+    /**
+     * Gives back whatever the order still holds (a pending order being cancelled).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Order order) {
+        Map<Long, Integer> held = deleteHolds(order.getId());
+        new TreeMap<>(held).forEach(this::give);
+
+        Long orderId = order.getId();
+        afterCommit(() -> ledger.clear(orderId));
+    }
+
+    /**
+     * Returns the full quantity of every item to stock (a placed order being cancelled).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void restock(Order order) {
+        quantitiesByProductId(order).forEach((productId, quantity) -> {
+            give(productId, quantity);
+            log.debug("Restored stock for product {} by {}", productId, quantity);
+        });
+    }
+
+    /**
+     * Releases up to {@code limit} holds that expired before now, in one transaction,
+     * with one stock UPDATE per product. The table is only queried when the ledger knows
+     * of an expired hold, which assumes this instance is the only writer of holds.
+     *
+     * @return how many reservation rows were examined, so the caller knows whether to continue
+     */
+    @Transactional
+    public int releaseExpired(int limit) {
+        long now = System.currentTimeMillis();
+        if (!ledger.hasExpired(now)) {
+            return 0;
+        }
+        List<StockReservation> batch = reservationRepository.findByExpiresAtLessThanOrderByExpiresAtAscIdAsc(
+                now, PageRequest.ofSize(limit));
+        Map<Long, Integer> released = new TreeMap<>();
+        List<StockReservation> releasedHolds = new ArrayList<>(batch.size());
+        for (StockReservation hold : batch) {
+            // A concurrent placement may have consumed the hold first; then it is not ours to give back
+            if (reservationRepository.deleteHold(hold.getId()) == 1) {
+                released.merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+                releasedHolds.add(hold);
+            }
+        }
+        released.forEach(this::give);
+        if (batch.isEmpty()) {
+            // Everything the ledger thought expired was consumed in the meantime
+            ledger.clearExpired(now);
+        }
+        if (!releasedHolds.isEmpty()) {
+            expired.increment(releasedHolds.size());
+            log.info("Released {} expired stock holds", releasedHolds.size());
+        }
+
+        afterCommit(() -> releasedHolds.forEach(hold ->
+                ledger.release(hold.getOrderId(), hold.getProductId(), hold.getQuantity())));
+        return batch.size();
+    }
+
+    /**
+     * Loads every committed hold into the ledger (after a restart with a persistent database).
+     */
+    @Transactional(readOnly = true)
+    public void rebuildLedger() {
+        Map<Long, Map<Long, Integer>> unitsByOrder = new HashMap<>();
+        Map<Long, Long> expiryByOrder = new HashMap<>();
+        for (StockReservation hold : reservationRepository.findAll()) {
+            unitsByOrder.computeIfAbsent(hold.getOrderId(), id -> new HashMap<>())
+                    .merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+            expiryByOrder.merge(hold.getOrderId(), hold.getExpiresAt(), Math::min);
+        }
+        unitsByOrder.forEach((orderId, units) -> ledger.record(orderId, expiryByOrder.get(orderId), units));
+        log.info("Loaded {} orders with stock holds into the reservation ledger", unitsByOrder.size());
+    }
+
+    /**
+     * Takes units from the product row with a conditional UPDATE, or from its in-memory
+     * counters if it is hot (which return them again if the transaction does not commit).
+     * Every refusal is counted in {@code inventory.stock.conflicts}.
+     */
+    private boolean take(Long productId, int quantity) {
+        if (!hotStockCounters.isHot(productId)) {
+            if (productRepository.decrementStock(productId, quantity) > 0) {
+                return true;
+            }
+            rowShortages.increment();
+            return false;
+        }
+        if (!hotStockCounters.tryTake(productId, quantity)) {
+            hotShortages.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns units to the product row, or to its counters once the transaction has committed.
+     */
+    private void give(Long productId, int quantity) {
+        if (hotStockCounters.isHot(productId)) {
+            afterCommit(() -> hotStockCounters.give(productId, quantity));
+        } else {
+            productRepository.incrementStock(productId, quantity);
+        }
+    }
+
+    private Map<Long, Integer> deleteHolds(Long orderId) {
+        Map<Long, Integer> held = new HashMap<>();
+        for (StockReservation hold : reservationRepository.findByOrderId(orderId)) {
+            if (reservationRepository.deleteHold(hold.getId()) == 1) {
+                held.merge(hold.getProductId(), hold.getQuantity(), Integer::sum);
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Sums item quantities per product id, sorted by id (the lock order for product rows).
+     */
+    private Map<Long, Integer> quantitiesByProductId(Order order) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (OrderItem item : order.getItems()) {
+            byName.merge(item.getProductName(), item.getQuantity(), Integer::sum);
+        }
+        Map<String, CatalogEntry> products = productCatalog.findAll(byName.keySet());
+        Map<Long, Integer> byId = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : byName.entrySet()) {
+            CatalogEntry product = products.get(entry.getKey());
+            if (product == null) {
+                log.warn("Product not found: {}", entry.getKey());
+                throw new IllegalStateException("Product not found: " + entry.getKey());
+            }
+            byId.merge(product.id(), entry.getValue(), Integer::sum);
+        }
+        return byId;
+    }
+
+    private String productName(Order order, Long productId) {
+        Map<String, CatalogEntry> products = productCatalog.findAll(order.getItems().stream()
+                .map(OrderItem::getProductName).toList());
+        return products.values().stream()
+                .filter(product -> product.id().equals(productId))
+                .map(CatalogEntry::name)
+                .findFirst()
+                .orElse(String.valueOf(productId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
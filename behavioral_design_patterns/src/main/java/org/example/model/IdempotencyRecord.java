@@ -0,0 +1,78 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The stored response of a request sent with an Idempotency-Key header.
+ * The row is inserted when the request claims its key, with {@link #IN_PROGRESS} as the
+ * status, and the response is filled in when the request succeeds; the primary key makes
+ * the claim exclusive across instances. The key is assigned by the client, so the entity reports itself as new until it
+ * has been persisted or loaded; saving it is then a plain insert rather than a merge.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    /** Response status of a key whose request is still running. */
+    public static final int IN_PROGRESS = 0;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String id;
+
+    /** SHA-256 of the request method, path and body, to detect a key reused for another request. */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "response_status", nullable = false)
+    private int responseStatus;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Lob
+    @Column(name = "response_body")
+    private byte[] responseBody;
+
+    /**
+     * When the key was claimed, or taken over from an expired claim. Also identifies the claim:
+     * the response is only stored, and the claim only released, by the request that made it.
+     */
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    @Transient
+    private boolean persisted;
+
+    public IdempotencyRecord(String id, String fingerprint, int responseStatus, String contentType,
+                             byte[] responseBody, long createdAt) {
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.responseStatus = responseStatus;
+        this.contentType = contentType;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+    }
+
+    public boolean isComplete() {
+        return responseStatus != IN_PROGRESS;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
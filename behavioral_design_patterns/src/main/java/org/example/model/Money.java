@@ -0,0 +1,109 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An exact amount of money, held as a whole number of minor units (cents for USD) plus its currency.
+ * Arithmetic is integer arithmetic and throws on overflow instead of wrapping, so sums never pick up
+ * rounding error. In JSON an amount is a plain decimal number in {@link #DEFAULT_CURRENCY}, written
+ * from the minor units without any rounding; amounts with more decimals than the currency allows
+ * are rejected rather than rounded.
+ * Embeddable so entities store it as a BIGINT column and a currency code column. The components
+ * are declared in alphabetical order on purpose: with an attribute override Hibernate builds the
+ * record from its columns in that order.
+ */
+@Embeddable
+public record Money(
+        @Column(name = "currency", nullable = false, length = 3) Currency currency,
+        @Column(name = "amount", nullable = false) long minorUnits) implements Comparable<Money> {
+
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+    public static final Money ZERO = new Money(DEFAULT_CURRENCY, 0);
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+        if (currency.getDefaultFractionDigits() < 0) {
+            throw new IllegalArgumentException("Currency has no minor unit: " + currency);
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(DEFAULT_CURRENCY, minorUnits);
+    }
+
+    /**
+     * Parses an amount in major units, e.g. {@code "149.99"}, in the default currency.
+     */
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount), DEFAULT_CURRENCY);
+    }
+
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return of(amount, DEFAULT_CURRENCY);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the amount has more decimals than the currency allows
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            return new Money(currency, amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.UNNECESSARY)
+                    .unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + currency + " amount: " + amount.toPlainString());
+        }
+    }
+
+    public Money plus(Money other) {
+        return new Money(currency, Math.addExact(minorUnits, other.minorUnitsIn(currency)));
+    }
+
+    public Money minus(Money other) {
+        return new Money(currency, Math.subtractExact(minorUnits, other.minorUnitsIn(currency)));
+    }
+
+    public Money times(int quantity) {
+        return new Money(currency, Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    /**
+     * Returns the minor units after checking that this amount is in {@code expected}, so callers
+     * can add up many amounts as plain longs.
+     *
+     * @throws IllegalArgumentException if the currencies differ
+     */
+    public long minorUnitsIn(Currency expected) {
+        if (!currency.equals(expected)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " and " + expected + " amounts");
+        }
+        return minorUnits;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnitsIn(currency));
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
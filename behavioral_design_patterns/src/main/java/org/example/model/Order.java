@@ -1,5 +1,9 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +12,7 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.util.ArrayList;
+import java.util.Currency;
 import java.util.List;
 
 /**
@@ -15,7 +20,7 @@ import java.util.List;
  * Uses JPA annotations for persistence with H2 database.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_status_id", columnList = "status, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,41 +29,76 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String customerName;
 
-    @Column
-    private String status = "PENDING";
+    @Column(nullable = false, length = 1)
+    private OrderStatus status = OrderStatus.PENDING;
 
-    @Column(nullable = false)
-    private double totalAmount;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "total_amount", nullable = false))
+    @JsonSetter(nulls = Nulls.FAIL)
+    private Money totalAmount = Money.ZERO;
+
+    /** Number of items, stored so order lists can show it without reading order_items. */
+    @Column(name = "item_count", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int itemCount;
 
     @Column
     private String paymentMethod;
 
-    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    /** Status to go back to if the payment in progress fails; set while PAYMENT_PENDING. */
+    @Column(name = "status_before_payment", length = 1)
+    @JsonIgnore
+    private OrderStatus statusBeforePayment;
+
+    /** When the payment in progress was sent, so a stuck one can be reconciled. */
+    @Column(name = "payment_started_at")
+    @JsonIgnore
+    private Long paymentStartedAtMillis;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<OrderItem> items = new ArrayList<>();
 
     @PrePersist
     public void prePersist() {
         if (status == null) {
-            status = "PENDING";
+            status = OrderStatus.PENDING;
         }
     }
 
-    public Order(String customerName, double totalAmount) {
+    public Order(String customerName, Money totalAmount) {
         this.customerName = customerName;
         this.totalAmount = totalAmount;
-        this.status = "PENDING";
+        this.status = OrderStatus.PENDING;
     }
 
-    public void updateStatus(String newStatus) {
+    public void updateStatus(OrderStatus newStatus) {
         this.status = newStatus;
     }
 
+    /**
+     * Adds up the item subtotals in the order's currency. The sum is kept in minor units
+     * and only wrapped in a Money at the end, so a large order allocates nothing per item.
+     */
+    public Money itemsTotal() {
+        Currency currency = totalAmount.currency();
+        long total = 0;
+        for (int i = 0; i < items.size(); i++) {
+            total = Math.addExact(total, items.get(i).subtotalMinorUnits(currency));
+        }
+        return new Money(currency, total);
+    }
+
     public void addItem(OrderItem item) {
         items.add(item);
         item.setOrder(this);
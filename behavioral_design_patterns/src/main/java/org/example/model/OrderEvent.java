@@ -0,0 +1,40 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+/**
+ * Immutable description of an order state change delivered to observers.
+ * Holds only primitives, enum constants and an immutable amount; the human-readable
+ * message is built on demand for observers that still want text.
+ * Embeddable so the outbox and spill tables can store it as plain columns.
+ */
+@Embeddable
+public record OrderEvent(
+        @Enumerated(EnumType.STRING) @Column(name = "event_type", nullable = false, length = 20) OrderEventType type,
+        @Column(name = "order_id") Long orderId,
+        @Column(name = "old_status", length = 1) OrderStatus oldStatus,
+        @Column(name = "new_status", length = 1) OrderStatus newStatus,
+        Money amount,
+        @Column(name = "occurred_at", nullable = false) long occurredAtMillis) {
+
+    public static OrderEvent of(OrderEventType type, Order order, OrderStatus oldStatus) {
+        return new OrderEvent(type, order.getId(), oldStatus, order.getStatus(), order.getTotalAmount(),
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Text form of the event, matching the messages observers received before typed events existed.
+     */
+    public String toMessage() {
+        return switch (type) {
+            case CREATED -> "New order created: " + orderId;
+            case PLACED -> "Order placed successfully: " + orderId;
+            case PAID -> "Payment processed for order: " + orderId;
+            case CANCELLED -> "Order cancelled: " + orderId;
+            case STATUS_CHANGED -> "Order " + orderId + " status changed to: " + newStatus;
+        };
+    }
+}
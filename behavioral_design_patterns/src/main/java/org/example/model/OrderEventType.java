@@ -0,0 +1,12 @@
+package org.example.model;
+
+/**
+ * Kinds of order state changes observers can subscribe to.
+ */
+public enum OrderEventType {
+    CREATED,
+    PLACED,
+    PAID,
+    CANCELLED,
+    STATUS_CHANGED
+}
@@ -1,11 +1,15 @@
 package org.example.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Currency;
+
 /**
  * OrderItem entity representing a single item within an order.
  */
@@ -17,7 +21,8 @@ import lombok.NoArgsConstructor;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,21 +31,32 @@ public class OrderItem {
     @Column(nullable = false)
     private int quantity;
 
-    @Column(nullable = false)
-    private double price;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "price", nullable = false))
+    @JsonSetter(nulls = Nulls.FAIL)
+    private Money price = Money.ZERO;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     @JsonIgnore
     private Order order;
 
-    public OrderItem(String productName, int quantity, double price) {
+    public OrderItem(String productName, int quantity, Money price) {
         this.productName = productName;
         this.quantity = quantity;
         this.price = price;
     }
 
-    public double getSubtotal() {
-        return quantity * price;
+    public Money getSubtotal() {
+        return price.times(quantity);
+    }
+
+    /**
+     * The subtotal as minor units of {@code currency}, without allocating.
+     *
+     * @throws IllegalArgumentException if the item is priced in another currency
+     */
+    public long subtotalMinorUnits(Currency currency) {
+        return Math.multiplyExact(price.minorUnitsIn(currency), quantity);
     }
 }
@@ -0,0 +1,50 @@
+package org.example.model;
+
+/**
+ * Lifecycle states of an order.
+ * Each state is persisted as a stable one-character code (see OrderStatusConverter),
+ * which keeps the status column and its indexes small and lets new states be added
+ * anywhere in this list without rewriting stored rows.
+ */
+public enum OrderStatus {
+    PENDING('N'),
+    PLACED('L'),
+    /** Payment has been sent to the gateway and its outcome is not known yet. */
+    PAYMENT_PENDING('Y'),
+    PAID('P'),
+    SHIPPED('S'),
+    CANCELLED('C');
+
+    private final char code;
+
+    OrderStatus(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public static OrderStatus fromCode(char code) {
+        for (OrderStatus status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status code: " + code);
+    }
+
+    /**
+     * Parses a status name as sent by API clients, ignoring case.
+     */
+    public static OrderStatus parse(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Order status is required");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order status: " + name);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores OrderStatus as its one-character code.
+ */
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, Character> {
+
+    @Override
+    public Character convertToDatabaseColumn(OrderStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(Character code) {
+        return code == null ? null : OrderStatus.fromCode(code);
+    }
+}
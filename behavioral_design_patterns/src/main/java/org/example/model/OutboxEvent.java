@@ -0,0 +1,36 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order event recorded in the same transaction as the order change.
+ * The OutboxRelay delivers it to the observers once the transaction has committed.
+ * After a failed delivery {@code retryAtMillis} holds back this event, and the later
+ * events of the same order, until the retry is due.
+ */
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Embedded
+    private OrderEvent event;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "retry_at")
+    private Long retryAtMillis;
+
+    public OutboxEvent(OrderEvent event) {
+        this.event = event;
+    }
+}
@@ -1,9 +1,11 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.catalog.ProductCacheInvalidator;
 
 /**
  * Product entity representing items in the product catalog.
@@ -11,6 +13,7 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "products")
+@EntityListeners(ProductCacheInvalidator.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,13 +26,18 @@ public class Product {
     @Column(nullable = false, unique = true)
     private String name;
 
-    @Column(nullable = false)
-    private double price;
+    @Embedded
+    @AttributeOverride(name = "minorUnits", column = @Column(name = "price", nullable = false))
+    private Money price;
 
     @Column(nullable = false)
     private int stockQuantity;
 
-    public Product(String name, double price, int stockQuantity) {
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public Product(String name, Money price, int stockQuantity) {
         this.name = name;
         this.price = price;
         this.stockQuantity = stockQuantity;
@@ -0,0 +1,31 @@
+package org.example.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An order event that did not fit into an observer's in-memory queue.
+ * Stored until the observer's dispatcher has room to deliver it.
+ */
+@Entity
+@Table(name = "notification_spill", indexes = @Index(name = "idx_spill_observer_id", columnList = "observer, id"))
+@Data
+@NoArgsConstructor
+public class SpilledNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String observer;
+
+    @Embedded
+    private OrderEvent event;
+
+    public SpilledNotification(String observer, OrderEvent event) {
+        this.observer = observer;
+        this.event = event;
+    }
+}
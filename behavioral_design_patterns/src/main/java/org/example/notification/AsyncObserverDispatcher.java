@@ -0,0 +1,209 @@
+package org.example.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.OrderEvent;
+import org.example.model.SpilledNotification;
+import org.example.repository.SpilledNotificationRepository;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers notifications to a single observer from a bounded queue on its own worker,
+ * so a slow observer neither blocks the publisher nor delays the other observers.
+ * The worker can be a virtual thread (Java 21+), which costs no platform thread while
+ * the observer blocks.
+ * With the SPILL policy, once the queue overflows every new event goes to the spill table
+ * until the worker has emptied it, so events keep their order. Each spilled row is committed
+ * in a transaction of its own (SpilledNotificationRepository#save) before enqueue returns,
+ * so the worker sees it whatever transaction the publisher is in; NotificationService only
+ * enqueues after the publisher's transaction has committed, so a rolled-back change is never
+ * spilled. The worker drains the table as soon as the queue is empty, not after an idle period.
+ */
+@Slf4j
+class AsyncObserverDispatcher {
+
+    private static final long IDLE_POLL_MS = 1000;
+
+    private final Observer observer;
+    private final String observerName;
+    private final BlockingQueue<QueuedNotification> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final SpilledNotificationRepository spillRepository;
+    private final ExecutorService worker;
+    private final AtomicBoolean running = new AtomicBoolean(true);
+    private final AtomicBoolean spilling = new AtomicBoolean(false);
+    /** Held while spilling and while deciding that spilling is over, so no row is saved in between. */
+    private final Object spillLock = new Object();
+
+    private final Timer deliveryLag;
+    private final Timer observerLatency;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter failed;
+
+    AsyncObserverDispatcher(Observer observer, int capacity, OverflowPolicy overflowPolicy,
+                            SpilledNotificationRepository spillRepository, MeterRegistry meterRegistry) {
+        this(observer, capacity, overflowPolicy, spillRepository, meterRegistry, false);
+    }
+
+    AsyncObserverDispatcher(Observer observer, int capacity, OverflowPolicy overflowPolicy,
+                            SpilledNotificationRepository spillRepository, MeterRegistry meterRegistry,
+                            boolean virtualThread) {
+        if (overflowPolicy == OverflowPolicy.SPILL && spillRepository == null) {
+            throw new IllegalArgumentException("SPILL overflow policy requires a spill repository");
+        }
+        this.observer = observer;
+        this.observerName = observer.getClass().getSimpleName();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.spillRepository = spillRepository;
+
+        Gauge.builder("notifications.queue.depth", queue, BlockingQueue::size)
+                .tag("observer", observerName)
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("notifications.delivery.lag")
+                .tag("observer", observerName)
+                .register(meterRegistry);
+        this.observerLatency = NotificationService.observerLatency(observerName, meterRegistry);
+        this.dropped = meterRegistry.counter("notifications.dropped", "observer", observerName);
+        this.spilled = meterRegistry.counter("notifications.spilled", "observer", observerName);
+        this.failed = meterRegistry.counter("notifications.failed", "observer", observerName);
+
+        ThreadFactory threadFactory = virtualThread
+                ? new VirtualThreadTaskExecutor("notify-" + observerName + "-").getVirtualThreadFactory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "notify-" + observerName);
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.worker = Executors.newSingleThreadExecutor(threadFactory);
+        this.worker.execute(this::run);
+    }
+
+    Observer getObserver() {
+        return observer;
+    }
+
+    void enqueue(OrderEvent event) {
+        QueuedNotification notification = new QueuedNotification(event, System.nanoTime());
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                try {
+                    queue.put(notification);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while queueing notification", e);
+                }
+            }
+            case DROP_OLDEST -> {
+                while (!queue.offer(notification)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                        log.warn("Notification queue for {} is full, dropped oldest message", observerName);
+                    }
+                }
+            }
+            case SPILL -> {
+                // Once spilling has started, keep spilling until the table is drained to preserve order
+                if (!spilling.get() && queue.offer(notification)) {
+                    return;
+                }
+                synchronized (spillLock) {
+                    if (!spilling.get() && queue.offer(notification)) {
+                        return;
+                    }
+                    spilling.set(true);
+                    // Committed by the time save returns (REQUIRES_NEW), still under the lock
+                    spillRepository.save(new SpilledNotification(observerName, event));
+                    spilled.increment();
+                }
+            }
+        }
+    }
+
+    void shutdown(long timeoutMs) {
+        running.set(false);
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Notification dispatcher for {} stopped with {} undelivered messages",
+                        observerName, queue.size());
+                worker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.shutdownNow();
+        }
+    }
+
+    private void run() {
+        // Keep delivering after shutdown is requested until the in-memory queue is empty
+        while (running.get() || !queue.isEmpty()) {
+            try {
+                // While spilling, the queue only holds events older than the spilled ones:
+                // deliver those, then go straight to the table instead of waiting for more
+                QueuedNotification notification = spilling.get()
+                        ? queue.poll()
+                        : queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (notification != null) {
+                    deliveryLag.record(System.nanoTime() - notification.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                    deliver(notification.event());
+                } else if (spilling.get() && running.get()) {
+                    drainSpill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Notification dispatcher for {} failed", observerName, e);
+            }
+        }
+    }
+
+    private void drainSpill() {
+        List<SpilledNotification> batch = spillRepository.findTop100ByObserverOrderByIdAsc(observerName);
+        if (batch.isEmpty()) {
+            // Spills are committed under the lock and nothing is queued while spilling, so
+            // with the lock held an empty queue and no committed row mean nothing is pending
+            // and no later event can overtake a spilled one once the flag is cleared
+            synchronized (spillLock) {
+                if (queue.isEmpty() && !spillRepository.existsByObserver(observerName)) {
+                    spilling.set(false);
+                }
+            }
+            return;
+        }
+        for (SpilledNotification notification : batch) {
+            deliver(notification.getEvent());
+        }
+        // Delete only after delivery: a crash in between re-delivers (at-least-once)
+        spillRepository.deleteAllInBatch(batch);
+    }
+
+    private void deliver(OrderEvent event) {
+        long start = System.nanoTime();
+        try {
+            observer.update(event);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.error("Observer {} failed to handle event: {}", observerName, event, e);
+        } finally {
+            observerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record QueuedNotification(OrderEvent event, long enqueuedNanos) {
+    }
+}
@@ -1,21 +1,31 @@
-package org.example.notification;
-
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
-
-/**
- * Observer pattern implementation - Email notification.
- * Receives notifications when order status changes.
- */
-@Component
-@Slf4j
-public class EmailNotification implements Observer {
-
-    @Override
-    public void update(String message) {
-        // Simulate sending email notification
-        log.info("[EMAIL] Sending email notification: {}", message);
-        // In a real application, this would integrate with an email service
-        // e.g., JavaMailSender, SendGrid, AWS SES, etc.
-    }
-}
+package org.example.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.OrderEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observer pattern implementation - Email notification.
+ * Receives notifications when order status changes.
+ */
+@Component
+@Slf4j
+public class EmailNotification implements Observer {
+
+    /**
+     * Works from the event's fields directly; no message text is built for it.
+     */
+    @Override
+    public void update(OrderEvent event) {
+        // Simulate sending email notification
+        log.info("[EMAIL] Sending email notification: order {} {} ({} -> {}), amount {}",
+                event.orderId(), event.type(), event.oldStatus(), event.newStatus(), event.amount());
+        // In a real application, this would integrate with an email service
+        // e.g., JavaMailSender, SendGrid, AWS SES, etc.
+    }
+
+    @Override
+    public void update(String message) {
+        log.info("[EMAIL] Sending email notification: {}", message);
+    }
+}
@@ -1,49 +1,205 @@
 package org.example.notification;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.example.repository.SpilledNotificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Observer pattern subject - NotificationService.
  * Manages observers and notifies them of order status changes.
+ * In async mode every observer gets its own bounded queue and worker, so
+ * notifying only costs an enqueue on the caller's thread. The workers are virtual
+ * threads when {@code spring.threads.virtual.enabled} is set on Java 21+.
+ * Order events are normally published through {@link #publish(OrderEvent)}, which
+ * writes them to the outbox so observers only hear about committed changes; the outbox
+ * relay then calls the observers itself, so the async queues only carry events published
+ * with the outbox disabled.
+ * Each event is only handed to the observers subscribed to its type.
+ * How long each observer takes to handle an event is recorded in
+ * {@code notifications.observer.latency}, whichever thread calls it.
  */
 @Service
 @Slf4j
 public class NotificationService {
 
-    private final List<Observer> observers = new ArrayList<>();
+    private final CopyOnWriteArrayList<Observer> observers = new CopyOnWriteArrayList<>();
+    private final Map<Observer, AsyncObserverDispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final Map<Observer, Timer> latencies = new ConcurrentHashMap<>();
+    private final Map<OrderEventType, List<Observer>> subscribers = new EnumMap<>(OrderEventType.class);
 
     @Autowired(required = false)
     private List<Observer> autowiredObservers;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SpilledNotificationRepository spillRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${notifications.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    @Value("${notifications.dispatch.mode:async}")
+    private String dispatchMode;
+
+    @Value("${notifications.dispatch.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${notifications.dispatch.overflow-policy:BLOCK}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${notifications.dispatch.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    {
+        for (OrderEventType type : OrderEventType.values()) {
+            subscribers.put(type, new CopyOnWriteArrayList<>());
+        }
+    }
+
     @PostConstruct
     public void init() {
         // Auto-register all Observer beans
         if (autowiredObservers != null) {
-            observers.addAll(autowiredObservers);
-            log.info("Registered {} notification observers", observers.size());
+            autowiredObservers.forEach(this::addObserver);
+            log.info("Registered {} notification observers ({} dispatch)", observers.size(), dispatchMode);
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        dispatchers.values().forEach(dispatcher -> dispatcher.shutdown(shutdownTimeoutMs));
+        dispatchers.clear();
+    }
+
     public void addObserver(Observer observer) {
-        observers.add(observer);
+        if (!observers.addIfAbsent(observer)) {
+            log.debug("Observer already registered: {}", observer.getClass().getSimpleName());
+            return;
+        }
+        latencies.put(observer, observerLatency(observer.getClass().getSimpleName(), meterRegistry));
+        for (OrderEventType type : observer.subscribedEvents()) {
+            subscribers.get(type).add(observer);
+        }
+        if (isAsync()) {
+            dispatchers.put(observer, new AsyncObserverDispatcher(observer, queueCapacity, overflowPolicy,
+                    spillRepository, meterRegistry, Threading.VIRTUAL.isActive(environment)));
+        }
         log.debug("Added observer: {}", observer.getClass().getSimpleName());
     }
 
     public void removeObserver(Observer observer) {
         observers.remove(observer);
+        latencies.remove(observer);
+        subscribers.values().forEach(list -> list.remove(observer));
+        AsyncObserverDispatcher dispatcher = dispatchers.remove(observer);
+        if (dispatcher != null) {
+            dispatcher.shutdown(shutdownTimeoutMs);
+        }
         log.debug("Removed observer: {}", observer.getClass().getSimpleName());
     }
 
-    public void notifyObservers(String message) {
-        log.info("Notifying {} observers with message: {}", observers.size(), message);
-        for (Observer observer : observers) {
-            observer.update(message);
+    /**
+     * Publishes an event about an order. With the outbox enabled the event is stored in the
+     * caller's transaction and relayed after commit; otherwise observers are notified immediately.
+     */
+    public void publish(OrderEvent event) {
+        if (outboxEnabled) {
+            outboxEventRepository.save(new OutboxEvent(event));
+            log.debug("Recorded outbox event: {}", event);
+        } else {
+            notifyObservers(event);
         }
     }
+
+    /**
+     * Calls every observer on the current thread, bypassing the async queues.
+     * Exceptions propagate so the caller can retry delivery.
+     */
+    public void notifyObserversNow(OrderEvent event) {
+        for (Observer observer : subscribers.get(event.type())) {
+            update(observer, event);
+        }
+    }
+
+    /**
+     * Notifies the observers subscribed to the event's type: queued for each observer in async
+     * mode, called on this thread otherwise. Inside a transaction the observers are only
+     * notified once it has committed, so a rolled-back change is never queued, spilled or seen.
+     */
+    public void notifyObservers(OrderEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+            return;
+        }
+        dispatch(event);
+    }
+
+    static Timer observerLatency(String observerName, MeterRegistry meterRegistry) {
+        return Timer.builder("notifications.observer.latency")
+                .description("Time an observer takes to handle one event")
+                .tag("observer", observerName)
+                .register(meterRegistry);
+    }
+
+    private void dispatch(OrderEvent event) {
+        List<Observer> targets = subscribers.get(event.type());
+        log.info("Notifying {} observers of {} for order {}", targets.size(), event.type(), event.orderId());
+        for (Observer observer : targets) {
+            AsyncObserverDispatcher dispatcher = dispatchers.get(observer);
+            if (dispatcher != null) {
+                dispatcher.enqueue(event);
+            } else {
+                update(observer, event);
+            }
+        }
+    }
+
+    private void update(Observer observer, OrderEvent event) {
+        long start = System.nanoTime();
+        try {
+            observer.update(event);
+        } finally {
+            Timer latency = latencies.get(observer);
+            if (latency != null) {
+                latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private boolean isAsync() {
+        return "async".equalsIgnoreCase(dispatchMode);
+    }
 }
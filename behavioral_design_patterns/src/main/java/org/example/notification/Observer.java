@@ -1,6 +1,27 @@
 
 package org.example.notification;
 
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
 public interface Observer {
     void update(String message);
+
+    /**
+     * Receives a typed order event. Observers that only understand text can rely on the
+     * default, which forwards the event's message to {@link #update(String)}.
+     */
+    default void update(OrderEvent event) {
+        update(event.toMessage());
+    }
+
+    /**
+     * Event types this observer is interested in; it is never invoked for other types.
+     */
+    default Set<OrderEventType> subscribedEvents() {
+        return EnumSet.allOf(OrderEventType.class);
+    }
 }
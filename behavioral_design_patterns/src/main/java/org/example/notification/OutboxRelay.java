@@ -0,0 +1,117 @@
+package org.example.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background relay for the order outbox.
+ * Drains committed events on a single thread and calls the subscribed observers directly
+ * (NotificationService#notifyObserversNow), bypassing the async queues, and deletes a row only
+ * after every observer has returned. A crash or a failing observer therefore leaves the row for
+ * the next pass: delivery is at-least-once, and when one observer fails the ones that already
+ * succeeded see the event again on the retry.
+ * <p>
+ * Events are relayed in id order. Ids come from a pooled sequence when the row is inserted,
+ * not when it commits, so that is not necessarily commit order, not even for the events of one
+ * order (another instance may hand out lower ids later); observers must not rely on it. When
+ * an event fails, the later events of its order in id order are held back with exponential
+ * backoff while other orders' events keep flowing. After {@code max-attempts} the event is discarded.
+ */
+@Component
+@ConditionalOnProperty(name = "notifications.outbox.enabled", havingValue = "true")
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final Counter delivered;
+    private final Counter failed;
+    private final Counter discarded;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       NotificationService notificationService,
+                       @Value("${notifications.outbox.batch-size:100}") int batchSize,
+                       @Value("${notifications.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${notifications.outbox.retry-backoff-ms:200}") long retryBackoffMs,
+                       @Value("${notifications.outbox.max-retry-backoff-ms:60000}") long maxRetryBackoffMs,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationService = notificationService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.delivered = meterRegistry.counter("notifications.outbox.delivered");
+        this.failed = meterRegistry.counter("notifications.outbox.failed");
+        this.discarded = meterRegistry.counter("notifications.outbox.discarded");
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:200}")
+    public void relay() {
+        // Keep draining while full batches come back, then wait for the next tick
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox batch full, draining next batch");
+        }
+    }
+
+    /**
+     * Delivers one batch and returns how many events it read. When an event fails, the
+     * batch's later events of the same order are left in the outbox, held back by the failed one.
+     */
+    int relayBatch() {
+        long now = System.currentTimeMillis();
+        List<OutboxEvent> batch = outboxEventRepository.findDeliverable(now, PageRequest.of(0, batchSize));
+        List<OutboxEvent> done = new ArrayList<>(batch.size());
+        Set<Long> failedOrders = new HashSet<>();
+        for (OutboxEvent event : batch) {
+            Long orderId = event.getEvent().orderId();
+            if (orderId != null && failedOrders.contains(orderId)) {
+                continue;
+            }
+            try {
+                notificationService.notifyObserversNow(event.getEvent());
+                delivered.increment();
+                done.add(event);
+            } catch (RuntimeException e) {
+                failed.increment();
+                event.setAttempts(event.getAttempts() + 1);
+                if (event.getAttempts() >= maxAttempts) {
+                    discarded.increment();
+                    log.error("Discarding outbox event {} for order {} after {} attempts",
+                            event.getId(), orderId, event.getAttempts(), e);
+                    done.add(event);
+                } else {
+                    long backoff = Math.min(retryBackoffMs << Math.min(event.getAttempts() - 1, 20), maxRetryBackoffMs);
+                    event.setRetryAtMillis(now + backoff);
+                    log.warn("Delivery of outbox event {} for order {} failed (attempt {}), retrying in {} ms",
+                            event.getId(), orderId, event.getAttempts(), backoff, e);
+                    outboxEventRepository.save(event);
+                    if (orderId != null) {
+                        failedOrders.add(orderId);
+                    }
+                }
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(done);
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.notification;
+
+/**
+ * What an asynchronous observer queue does when it is full.
+ */
+public enum OverflowPolicy {
+    /** The publishing thread waits until the observer catches up. */
+    BLOCK,
+    /** The oldest queued notification is discarded to make room. */
+    DROP_OLDEST,
+    /** The notification is written to the notification_spill table and delivered later. */
+    SPILL
+}
@@ -1,30 +1,45 @@
 package org.example.payment;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.model.Money;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Strategy pattern implementation for credit card payments.
  */
 @Component("creditcard")
+@RequiredArgsConstructor
 @Slf4j
 public class CreditCardPayment implements PaymentStrategy {
 
+    private final FakePaymentGateway gateway;
+
     @Override
-    public void pay(double amount) {
-        // Implement credit card payment logic
-        log.info("[CREDIT CARD] Processing credit card payment of ${}", amount);
+    public void pay(Money amount) {
+        PaymentResult result = payAsync(UUID.randomUUID().toString(), amount).join();
+        if (!result.isApproved()) {
+            throw new IllegalStateException("Payment failed: " + result.message());
+        }
+    }
 
-        // Simulate payment processing
-        // In a real application, this would integrate with a payment gateway
-        // e.g., Stripe, PayPal, Square, etc.
+    @Override
+    public CompletableFuture<PaymentResult> payAsync(String reference, Money amount) {
+        log.info("[CREDIT CARD] Processing credit card payment of {}", amount);
 
-        if (amount <= 0) {
+        if (!amount.isPositive()) {
             log.error("Invalid payment amount: {}", amount);
             throw new IllegalArgumentException("Payment amount must be greater than 0");
         }
 
-        // Simulate successful payment
-        log.info("[CREDIT CARD] Payment of ${} processed successfully", amount);
+        // The gateway call completes on the gateway's own thread; nothing blocks here
+        return gateway.charge("creditcard", reference, amount)
+                .thenApply(result -> {
+                    log.info("[CREDIT CARD] Payment of {} processed successfully", amount);
+                    return result;
+                });
     }
 }
@@ -0,0 +1,80 @@
+package org.example.payment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a remote payment gateway, for development and load tests.
+ * Every charge completes after {@code payments.gateway.latency-ms} (plus up to
+ * {@code jitter-ms}) on a timer thread, so no thread is blocked while "waiting" for
+ * the gateway, and fails with probability {@code failure-rate}. Charges are idempotent
+ * per reference, like a real gateway's idempotency key: repeating a reference within
+ * {@code idempotency-retention-ms} returns the first outcome instead of charging twice.
+ */
+@Component
+@Slf4j
+public class FakePaymentGateway {
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final long retentionMs;
+    private final ScheduledExecutorService timer;
+    private final Map<String, CompletableFuture<PaymentResult>> charges = new ConcurrentHashMap<>();
+
+    public FakePaymentGateway(@Value("${payments.gateway.latency-ms:20}") long latencyMs,
+                              @Value("${payments.gateway.jitter-ms:0}") long jitterMs,
+                              @Value("${payments.gateway.failure-rate:0.0}") double failureRate,
+                              @Value("${payments.gateway.idempotency-retention-ms:600000}") long retentionMs) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.retentionMs = retentionMs;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fake-payment-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Charges {@code amount} once per {@code reference}.
+     *
+     * @return a future completed with APPROVED, or exceptionally if the gateway "failed"
+     */
+    public CompletableFuture<PaymentResult> charge(String channel, String reference, Money amount) {
+        return charges.computeIfAbsent(reference, key -> {
+            CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+            long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+            timer.schedule(() -> {
+                if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                    // A failed call is not remembered, so the charge can be retried
+                    charges.remove(key);
+                    result.completeExceptionally(new IllegalStateException("Gateway error for " + key));
+                } else {
+                    log.debug("[{}] Charged {} for {}", channel, amount, key);
+                    result.complete(PaymentResult.approved(channel + "-" + UUID.randomUUID()));
+                    timer.schedule(() -> charges.remove(key), retentionMs, TimeUnit.MILLISECONDS);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+            return result;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.payment;
+
+import lombok.Getter;
+import org.example.model.Order;
+
+/**
+ * A payment that did not go through, with its result and the order as the attempt left it:
+ * back in its previous status after a decline or a rejection, still PAYMENT_PENDING when the
+ * outcome is unknown.
+ */
+@Getter
+public class PaymentNotCompletedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Neither the result nor the order is serializable; they only matter in-process
+    private final transient PaymentResult result;
+    private final transient Order order;
+
+    public PaymentNotCompletedException(PaymentResult result, Order order) {
+        super("Payment " + result.status().name().toLowerCase() + ": " + result.message());
+        this.result = result;
+        this.order = order;
+    }
+}
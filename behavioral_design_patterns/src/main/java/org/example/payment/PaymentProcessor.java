@@ -0,0 +1,175 @@
+package org.example.payment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs payments through the strategies with the usual protections for a remote call:
+ * a timeout per call, a bulkhead limiting the calls in flight per strategy, and a
+ * circuit breaker per strategy that stops calling a gateway that keeps failing.
+ * Calls refused by the bulkhead or the breaker never reach the gateway and come back
+ * as REJECTED; failures and timeouts come back as UNKNOWN. Results are handed to a
+ * small completion pool so follow-up work never runs on the gateway's threads, or to a
+ * new virtual thread each when virtual threads are enabled (Java 21+).
+ */
+@Component
+@Slf4j
+public class PaymentProcessor {
+
+    private final Map<String, PaymentStrategy> strategies;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final int maxConcurrentCalls;
+    private final int failureThreshold;
+    private final long openMs;
+    private final MeterRegistry meterRegistry;
+    private final Executor completionExecutor;
+
+    public PaymentProcessor(Map<String, PaymentStrategy> strategies,
+                            @Value("${payments.timeout-ms:2000}") long timeoutMs,
+                            @Value("${payments.bulkhead.max-concurrent-calls:100}") int maxConcurrentCalls,
+                            @Value("${payments.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                            @Value("${payments.circuit-breaker.open-ms:10000}") long openMs,
+                            @Value("${payments.completion-threads:4}") int completionThreads,
+                            MeterRegistry meterRegistry,
+                            Environment environment) {
+        this.strategies = strategies;
+        this.timeoutMs = timeoutMs;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.meterRegistry = meterRegistry;
+        if (Threading.VIRTUAL.isActive(environment)) {
+            this.completionExecutor = new VirtualThreadTaskExecutor("payment-");
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.completionExecutor = new ThreadPoolExecutor(completionThreads, completionThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no strategy for the payment method
+     */
+    public PaymentStrategy strategy(String paymentMethod) {
+        PaymentStrategy strategy = paymentMethod == null ? null : strategies.get(paymentMethod.toLowerCase());
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown payment method: " + paymentMethod);
+        }
+        return strategy;
+    }
+
+    /**
+     * Starts a payment and returns its eventual result; the future itself never fails
+     * because of the gateway.
+     *
+     * @param reference idempotency key for the charge
+     * @throws IllegalArgumentException for an unknown method or a non-positive amount
+     */
+    public CompletableFuture<PaymentResult> pay(String paymentMethod, String reference, Money amount) {
+        PaymentStrategy strategy = strategy(paymentMethod);
+        if (!amount.isPositive()) {
+            throw new IllegalArgumentException("Payment amount must be greater than 0");
+        }
+        String method = paymentMethod.toLowerCase();
+        Guard guard = guards.computeIfAbsent(method, this::newGuard);
+
+        if (!guard.bulkhead.tryAcquire()) {
+            return CompletableFuture.completedFuture(record(method,
+                    PaymentResult.rejected("Too many payments in progress for " + method)));
+        }
+        if (!guard.breaker.tryAcquire()) {
+            guard.bulkhead.release();
+            return CompletableFuture.completedFuture(record(method,
+                    PaymentResult.rejected("Payment method " + method + " is temporarily unavailable")));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<PaymentResult> call;
+        try {
+            call = strategy.payAsync(reference, amount);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    guard.bulkhead.release();
+                    guard.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (error == null) {
+                        guard.breaker.onSuccess();
+                        return record(method, result);
+                    }
+                    guard.breaker.onFailure();
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    String message = cause instanceof TimeoutException
+                            ? "Payment gateway did not answer within " + timeoutMs + " ms"
+                            : cause.getMessage();
+                    log.warn("Payment {} via {} failed: {}", reference, method, message);
+                    return record(method, PaymentResult.unknown(message));
+                })
+                .thenApplyAsync(Function.identity(), completionExecutor);
+    }
+
+    public PaymentCircuitBreaker.State circuitState(String paymentMethod) {
+        Guard guard = guards.get(paymentMethod.toLowerCase());
+        return guard == null ? PaymentCircuitBreaker.State.CLOSED : guard.breaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (completionExecutor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private PaymentResult record(String method, PaymentResult result) {
+        meterRegistry.counter("payments.results", "method", method, "status", result.status().name()).increment();
+        return result;
+    }
+
+    private Guard newGuard(String method) {
+        Guard guard = new Guard(new Semaphore(maxConcurrentCalls),
+                new PaymentCircuitBreaker(failureThreshold, openMs),
+                Timer.builder("payments.gateway.latency").tag("method", method).register(meterRegistry));
+        Gauge.builder("payments.bulkhead.in_flight", guard.bulkhead, semaphore -> maxConcurrentCalls - semaphore.availablePermits())
+                .tag("method", method)
+                .register(meterRegistry);
+        Gauge.builder("payments.circuit.open", guard.breaker,
+                        breaker -> breaker.getState() == PaymentCircuitBreaker.State.CLOSED ? 0 : 1)
+                .tag("method", method)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private record Guard(Semaphore bulkhead, PaymentCircuitBreaker breaker, Timer latency) {
+    }
+}
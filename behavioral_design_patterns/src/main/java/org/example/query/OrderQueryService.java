@@ -0,0 +1,118 @@
+package org.example.query;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.CursorPage;
+import org.example.dto.OrderSummary;
+import org.example.dto.OrderView;
+import org.example.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Non-blocking facade over {@link OrderReadStore}. Every query runs on the {@code order-read}
+ * scheduler, which has one thread per read connection and queues at most
+ * {@code orders.read.queue-capacity} queries per thread; beyond that the returned publisher fails
+ * with RejectedExecutionException instead of queueing more. The request thread only starts the
+ * query and is released until the result is ready.
+ */
+@Service
+@Slf4j
+public class OrderQueryService {
+
+    private final OrderReadStore readStore;
+    private final Scheduler scheduler;
+    private final int streamPageSize;
+    private final Duration streamIdleTimeout;
+
+    public OrderQueryService(OrderReadStore readStore,
+                             @Value("${orders.read.queue-capacity:256}") int queueCapacity,
+                             @Value("${orders.read.stream-page-size:200}") int streamPageSize,
+                             @Value("${orders.read.stream-idle-timeout:30s}") Duration streamIdleTimeout) {
+        this.readStore = readStore;
+        this.scheduler = Schedulers.newBoundedElastic(readStore.getPoolSize(), queueCapacity, "order-read");
+        this.streamPageSize = streamPageSize;
+        this.streamIdleTimeout = streamIdleTimeout;
+    }
+
+    public Mono<OrderView> findById(long id) {
+        return Mono.fromCallable(() -> readStore.findById(id).orElse(null))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * One keyset page of the orders with the given status, like OrderService#getOrdersByStatus.
+     */
+    public Mono<CursorPage<OrderSummary>> findByStatus(OrderStatus status, long afterId, int size) {
+        // Fetch one extra row to know whether another page exists
+        return Mono.fromCallable(() -> toPage(readStore.findByStatusAfter(status, afterId, size + 1), size))
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Every order with the given status after {@code afterId}, in id order. Orders are read
+     * {@code orders.read.stream-page-size} at a time and strictly on demand: the next page is
+     * queried only when the subscriber requests an order past the current one, so a slow
+     * consumer holds at most one page in memory and no connection or thread between pages.
+     * <p>
+     * Spring MVC sets no async timeout on streamed (NDJSON) responses, so the stream bounds itself
+     * instead: it fails with a TimeoutException when no order has been emitted for
+     * {@code orders.read.stream-idle-timeout}, which frees the cursor and the request of a client
+     * that stopped reading. There is no limit on the total length of a stream that keeps moving.
+     */
+    public Flux<OrderSummary> streamByStatus(OrderStatus status, long afterId) {
+        return Flux.<OrderSummary, StreamCursor>generate(() -> new StreamCursor(afterId), (cursor, sink) -> {
+                    if (!cursor.rows.hasNext() && !cursor.lastPage) {
+                        List<OrderSummary> page = readStore.findByStatusAfter(status, cursor.afterId, streamPageSize);
+                        cursor.lastPage = page.size() < streamPageSize;
+                        cursor.rows = page.iterator();
+                        if (!page.isEmpty()) {
+                            cursor.afterId = page.get(page.size() - 1).id();
+                        }
+                    }
+                    if (cursor.rows.hasNext()) {
+                        sink.next(cursor.rows.next());
+                    } else {
+                        sink.complete();
+                    }
+                    return cursor;
+                })
+                .subscribeOn(scheduler)
+                .timeout(streamIdleTimeout);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    private static CursorPage<OrderSummary> toPage(List<OrderSummary> orders, int size) {
+        if (orders.size() <= size) {
+            return new CursorPage<>(orders, null);
+        }
+        List<OrderSummary> page = orders.subList(0, size);
+        return new CursorPage<>(page, page.get(size - 1).id());
+    }
+
+    /**
+     * Position of a status stream: the rows of the current page still to emit and the id to read on from.
+     */
+    private static final class StreamCursor {
+        private long afterId;
+        private Iterator<OrderSummary> rows = Collections.emptyIterator();
+        private boolean lastPage;
+
+        private StreamCursor(long afterId) {
+            this.afterId = afterId;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.query;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.OrderSummary;
+import org.example.dto.OrderView;
+import org.example.model.Money;
+import org.example.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Plain JDBC queries for the read-side order API, run on a connection pool of their own.
+ * The pool ({@code order-read}, {@code orders.read.pool-size} connections) is built from the
+ * same spring.datasource settings as the main one but is not a bean, so Hibernate and the
+ * order commands keep the main pool to themselves: however many reads are queued, they wait
+ * for one of these connections and never for one a placement needs. Each query runs in
+ * auto-commit mode and returns plain DTOs, with no persistence context involved.
+ * Query latency is recorded as {@code orders.read.query}, tagged with the query name.
+ */
+@Component
+@Slf4j
+public class OrderReadStore {
+
+    private static final String SUMMARY_COLUMNS =
+            "select id, customer_name, status, total_amount, currency, item_count, payment_method from orders ";
+
+    private static final String ORDER_WITH_ITEMS =
+            "select o.id, o.customer_name, o.status, o.total_amount, o.currency, o.item_count, o.payment_method, "
+                    + "o.version, i.id as item_id, i.product_name, i.quantity, i.price, i.currency as item_currency "
+                    + "from orders o left join order_items i on i.order_id = o.id where o.id = ? order by i.id";
+
+    private static final RowMapper<OrderSummary> SUMMARY = (rs, rowNum) -> new OrderSummary(
+            rs.getLong("id"), rs.getString("customer_name"), status(rs), money(rs, "total_amount", "currency"),
+            rs.getInt("item_count"), rs.getString("payment_method"));
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer byIdTimer;
+    private final Timer byStatusTimer;
+
+    public OrderReadStore(DataSourceProperties dataSourceProperties,
+                          @Value("${orders.read.pool-size:4}") int poolSize,
+                          MeterRegistry meterRegistry) {
+        this.dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("order-read");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricRegistry(meterRegistry);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.byIdTimer = queryTimer("by-id", meterRegistry);
+        this.byStatusTimer = queryTimer("by-status", meterRegistry);
+        log.info("Order read side uses its own pool of {} connections", poolSize);
+    }
+
+    public int getPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    /**
+     * Loads an order and its items with a single join.
+     */
+    public Optional<OrderView> findById(long id) {
+        return byIdTimer.record(() -> jdbcTemplate.query(ORDER_WITH_ITEMS, OrderReadStore::toView, id));
+    }
+
+    /**
+     * Reads up to {@code limit} summaries with the given status and an id above {@code afterId},
+     * in id order (served by idx_orders_status_id).
+     */
+    public List<OrderSummary> findByStatusAfter(OrderStatus status, long afterId, int limit) {
+        return byStatusTimer.record(() -> jdbcTemplate.query(
+                SUMMARY_COLUMNS + "where status = ? and id > ? order by id limit ?",
+                SUMMARY, String.valueOf(status.getCode()), afterId, limit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dataSource.close();
+    }
+
+    private static Optional<OrderView> toView(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return Optional.empty();
+        }
+        long id = rs.getLong("id");
+        String customerName = rs.getString("customer_name");
+        OrderStatus status = status(rs);
+        Money totalAmount = money(rs, "total_amount", "currency");
+        int itemCount = rs.getInt("item_count");
+        String paymentMethod = rs.getString("payment_method");
+        long version = rs.getLong("version");
+        List<OrderView.Item> items = new ArrayList<>(itemCount);
+        do {
+            String productName = rs.getString("product_name");
+            if (productName != null) {
+                items.add(new OrderView.Item(rs.getLong("item_id"), productName, rs.getInt("quantity"),
+                        money(rs, "price", "item_currency")));
+            }
+        } while (rs.next());
+        return Optional.of(new OrderView(id, customerName, status, totalAmount, itemCount, paymentMethod,
+                version, items));
+    }
+
+    private static OrderStatus status(ResultSet rs) throws SQLException {
+        return OrderStatus.fromCode(rs.getString("status").charAt(0));
+    }
+
+    private static Money money(ResultSet rs, String amountColumn, String currencyColumn) throws SQLException {
+        return new Money(Currency.getInstance(rs.getString(currencyColumn)), rs.getLong(amountColumn));
+    }
+
+    private static Timer queryTimer(String query, MeterRegistry meterRegistry) {
+        return Timer.builder("orders.read.query")
+                .description("Latency of read-side order queries, including the wait for a read connection")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+}
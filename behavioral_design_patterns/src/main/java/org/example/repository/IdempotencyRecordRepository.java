@@ -0,0 +1,76 @@
+package org.example.repository;
+
+import org.example.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for the stored responses of idempotent requests.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key by inserting its row, unless the key already has one. A single statement
+     * with no exception in the usual case of a retry finding the key taken; only two requests
+     * inserting the same new key at the same moment still make one of them fail on the primary key.
+     *
+     * @return 1 if this caller now holds the key, 0 if the key already had a row
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into idempotency_keys (idempotency_key, fingerprint, response_status, created_at) "
+            + "select :key, :fingerprint, 0, :claimedAt "
+            + "where not exists (select 1 from idempotency_keys where idempotency_key = :key)", nativeQuery = true)
+    int insertClaim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                    @Param("claimedAt") long claimedAt);
+
+    /**
+     * Fills in the response of a claimed key, if the claim made at {@code claimedAt} still holds it.
+     *
+     * @return 1, or 0 if the claim was released or taken over by another request
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.responseStatus = :status, r.contentType = :contentType, "
+            + "r.responseBody = :body where r.id = :key and r.responseStatus = 0 and r.createdAt = :claimedAt")
+    int saveResponse(@Param("key") String key, @Param("claimedAt") long claimedAt, @Param("status") int status,
+                     @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    /**
+     * Claims a key again if its record is still the one created at {@code createdAt}, so
+     * only one of several callers taking over an expired record wins it.
+     *
+     * @return 1 if this caller now holds the key, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.fingerprint = :fingerprint, r.responseStatus = 0, "
+            + "r.contentType = null, r.responseBody = null, r.createdAt = :claimedAt "
+            + "where r.id = :key and r.createdAt = :createdAt")
+    int takeOver(@Param("key") String key, @Param("fingerprint") String fingerprint,
+                 @Param("createdAt") long createdAt, @Param("claimedAt") long claimedAt);
+
+    /**
+     * Deletes the claim of a key whose request failed, if the claim made at {@code claimedAt}
+     * still holds it, leaving stored responses and claims taken over by another request alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :key and r.responseStatus = 0 and r.createdAt = :claimedAt")
+    int deleteClaim(@Param("key") String key, @Param("claimedAt") long claimedAt);
+
+    /**
+     * Deletes every record created before {@code createdAt}, as a range scan of the created_at index.
+     *
+     * @return the number of records deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdAt")
+    int deleteCreatedBefore(@Param("createdAt") long createdAt);
+}
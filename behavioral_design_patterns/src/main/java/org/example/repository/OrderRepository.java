@@ -1,18 +1,69 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.OrderSummary;
 import org.example.model.Order;
+import org.example.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Order entity CRUD operations.
+ * Order.items is lazy: single-order reads that need the items use the "items" entity graph,
+ * and list reads use the OrderSummary projection, which never touches order_items.
+ * List queries are keyset-paginated on id so they are served as range scans of the
+ * primary key or of the (status, id) index declared on Order.
  */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    List<Order> findByStatus(String status);
+    String SUMMARY = "select new org.example.dto.OrderSummary(o.id, o.customerName, o.status, o.totalAmount, "
+            + "o.itemCount, o.paymentMethod) from Order o ";
 
-    List<Order> findByCustomerName(String customerName);
+    /**
+     * Loads an order together with its items in a single join query.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * Loads several orders together with their items in a single join query.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    @Query(SUMMARY + "where o.status = :status and o.id > :afterId order by o.id")
+    List<OrderSummary> findSummariesByStatusAfter(@Param("status") OrderStatus status,
+                                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Keyset pagination: the next page of orders with an id greater than {@code afterId}.
+     * Only the page size of the Pageable is used.
+     */
+    @Query(SUMMARY + "where o.id > :afterId order by o.id")
+    List<OrderSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Streams every order summary in id order using a JDBC cursor; must be consumed inside a transaction.
+     */
+    @Query(SUMMARY + "order by o.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<OrderSummary> streamAllSummaries();
+
+    /**
+     * Ids of orders whose payment has been in progress since before {@code startedBefore}.
+     */
+    @Query("select o.id from Order o where o.status = :status and o.paymentStartedAtMillis < :startedBefore order by o.id")
+    List<Long> findIdsByStatusAndPaymentStartedBefore(@Param("status") OrderStatus status,
+                                                      @Param("startedBefore") long startedBefore, Pageable pageable);
 }
@@ -0,0 +1,27 @@
+package org.example.repository;
+
+import org.example.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the order notification outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Returns the oldest events that can be delivered now, in id order. Leaves out events
+     * waiting for a retry, and every event of an order that has one waiting, so an order's
+     * events are never delivered ahead of its failed one.
+     */
+    @Query("select e from OutboxEvent e where (e.retryAtMillis is null or e.retryAtMillis <= :now) "
+            + "and not exists (select p.id from OutboxEvent p where p.event.orderId = e.event.orderId "
+            + "and p.retryAtMillis > :now) order by e.id")
+    List<OutboxEvent> findDeliverable(@Param("now") long nowMillis, Pageable pageable);
+}
@@ -2,8 +2,13 @@ package org.example.repository;
 
 import org.example.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,4 +19,42 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findByName(String name);
+
+    /**
+     * Loads every product whose name is in the given set with a single query.
+     * Names that do not match a product are simply absent from the result.
+     */
+    List<Product> findByNameIn(Collection<String> names);
+
+    /**
+     * Atomically takes {@code quantity} units from the product, but only if
+     * enough stock is left. The check and the write happen in one UPDATE statement,
+     * so concurrent placements can never push the stock below zero.
+     *
+     * @return the number of rows updated: 1 on success, 0 if the product is missing or short
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 "
+            + "where p.id = :id and p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Atomically returns {@code quantity} units to the product (or takes them, if negative,
+     * without a stock check: used to write back the change in hot-product counters).
+     *
+     * @return the number of rows updated: 1 on success, 0 if the product is missing
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 "
+            + "where p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Locks the rows of the given products until the end of the transaction, taking the
+     * locks in id order.
+     *
+     * @return the ids of the products found
+     */
+    @Query(value = "select id from products where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> lockInIdOrder(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,29 @@
+package org.example.repository;
+
+import org.example.model.SpilledNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repository for notifications spilled out of full observer queues.
+ */
+@Repository
+public interface SpilledNotificationRepository extends JpaRepository<SpilledNotification, Long> {
+
+    List<SpilledNotification> findTop100ByObserverOrderByIdAsc(String observer);
+
+    boolean existsByObserver(String observer);
+
+    /**
+     * Commits the spilled row on its own, whatever transaction the caller is in, so the
+     * dispatcher's worker sees it as soon as this returns. Redeclared here because Spring Data
+     * applies the transaction settings of the repository interface over SimpleJpaRepository's.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends SpilledNotification> S save(S entity);
+}
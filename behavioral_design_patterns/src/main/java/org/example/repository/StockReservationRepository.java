@@ -0,0 +1,35 @@
+package org.example.repository;
+
+import org.example.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for stock reservations (holds taken between order creation and placement).
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrderId(Long orderId);
+
+    /**
+     * Returns the holds that expired before {@code now}, oldest first, as a range scan of the expiry index.
+     */
+    List<StockReservation> findByExpiresAtLessThanOrderByExpiresAtAscIdAsc(long now, Pageable pageable);
+
+    /**
+     * Deletes a single hold. Whoever deletes the row owns its units, so when placement and
+     * the sweeper race for the same hold, exactly one of them sees 1 here.
+     *
+     * @return 1 if this call removed the hold, 0 if it was already gone
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("delete from StockReservation r where r.id = :id")
+    int deleteHold(@Param("id") Long id);
+}
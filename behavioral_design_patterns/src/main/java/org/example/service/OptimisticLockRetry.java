@@ -0,0 +1,88 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for operations that can lose an optimistic locking race.
+ * Each attempt must run in its own transaction, so callers wrap the whole
+ * transaction (not a single statement) in {@link #execute(String, Supplier)}.
+ * Backoff is exponential with full jitter and capped at a maximum delay.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetry(@Value("${orders.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${orders.retry.initial-backoff-ms:5}") long initialBackoffMs,
+                               @Value("${orders.retry.max-backoff-ms:200}") long maxBackoffMs,
+                               MeterRegistry meterRegistry) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("orders.retry.max-attempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the action, retrying it on optimistic locking failures.
+     *
+     * @param operation name used for logging and as the metrics tag
+     * @param action    the transactional unit of work
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                counter("orders.optimistic_lock.conflicts", operation).increment();
+                if (attempt >= maxAttempts) {
+                    counter("orders.optimistic_lock.exhausted", operation).increment();
+                    log.warn("{} failed after {} attempts due to concurrent modification", operation, attempt);
+                    throw e;
+                }
+                counter("orders.optimistic_lock.retries", operation).increment();
+                long backoff = backoffMs(attempt);
+                log.debug("{} hit an optimistic lock conflict (attempt {}), retrying in {} ms",
+                        operation, attempt, backoff);
+                sleep(backoff);
+            }
+        }
+    }
+
+    private long backoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    private static void sleep(long millis) {
+        if (millis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -2,28 +2,50 @@ package org.example.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.catalog.OrderPricer;
 import org.example.command.CancelOrderCommand;
 import org.example.command.OrderCommand;
+import org.example.command.OrderCommandBus;
 import org.example.command.PlaceOrderCommand;
-import org.example.handler.InventoryCheckHandler;
-import org.example.handler.OrderValidationHandler;
-import org.example.handler.PaymentValidationHandler;
+import org.example.dto.BatchOrderResult;
+import org.example.dto.CursorPage;
+import org.example.dto.OrderSummary;
+import org.example.handler.OrderValidator;
+import org.example.inventory.StockReservationService;
 import org.example.model.Order;
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
 import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
 import org.example.notification.NotificationService;
-import org.example.payment.PaymentStrategy;
+import org.example.payment.PaymentNotCompletedException;
+import org.example.payment.PaymentProcessor;
+import org.example.payment.PaymentResult;
 import org.example.repository.OrderRepository;
-import org.example.repository.ProductRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Service layer for order business logic.
  * Coordinates between controllers, repositories, and design pattern components.
+ * Methods that modify an existing order run each attempt in its own transaction
+ * and are retried by {@link OptimisticLockRetry} when a concurrent update wins.
+ * The public operations are timed end to end by {@link OperationMetrics}.
  */
 @Service
 @RequiredArgsConstructor
@@ -31,147 +53,412 @@ import java.util.Optional;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
     private final NotificationService notificationService;
-    private final InventoryCheckHandler inventoryCheckHandler;
-    private final PaymentValidationHandler paymentValidationHandler;
-    private final Map<String, PaymentStrategy> paymentStrategies;
+    private final OrderValidator orderValidator;
+    private final OrderPricer orderPricer;
+    private final OrderCommandBus orderCommandBus;
+    private final PaymentProcessor paymentProcessor;
+    private final OperationMetrics operationMetrics;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Creates a new order after validation through the Chain of Responsibility.
+     * Item prices and the order total are set from the product catalog; the ones sent by the client are ignored.
      */
-    @Transactional
     public Order createOrder(Order order) {
-        log.info("Creating new order for customer: {}", order.getCustomerName());
+        return operationMetrics.record("createOrder", () -> transactionTemplate.execute(status -> {
+            log.info("Creating new order for customer: {}", order.getCustomerName());
 
-        // Set up the validation chain (Chain of Responsibility pattern)
-        inventoryCheckHandler.setNext(paymentValidationHandler);
+            // Price the items from the catalog, then validate through the chain (Chain of Responsibility pattern)
+            orderPricer.price(order);
+            orderValidator.validate(order);
 
-        // Validate the order through the chain
-        inventoryCheckHandler.validate(order);
+            // Save the order and hold its stock until it is placed
+            linkItems(order);
+            Order savedOrder = orderRepository.save(order);
+            stockReservationService.reserve(savedOrder);
+            log.debug("Order saved with ID: {}", savedOrder.getId());
 
-        // Save the order
-        Order savedOrder = orderRepository.save(order);
-        log.debug("Order saved with ID: {}", savedOrder.getId());
+            // Notify observers (Observer pattern)
+            notificationService.publish(OrderEvent.of(OrderEventType.CREATED, savedOrder, null));
 
-        // Notify observers (Observer pattern)
-        notificationService.notifyObservers("New order created: " + savedOrder.getId());
+            return savedOrder;
+        }));
+    }
 
-        return savedOrder;
+    /**
+     * Creates many orders in one transaction. The batch goes through the validation chain
+     * once, valid orders are inserted with JDBC batching, and each order gets its own result.
+     */
+    public List<BatchOrderResult> createOrders(List<Order> orders) {
+        return operationMetrics.record("createOrders", () -> transactionTemplate.execute(status -> {
+            log.info("Creating batch of {} orders", orders.size());
+
+            // Price the whole batch with one catalog lookup, then validate it through the chain
+            // (Chain of Responsibility pattern)
+            orderPricer.priceAll(orders);
+            Map<Order, String> rejected = new IdentityHashMap<>();
+            orderValidator.validateBatch(orders, rejected);
+
+            List<Order> accepted = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                if (!rejected.containsKey(order)) {
+                    linkItems(order);
+                    accepted.add(order);
+                }
+            }
+            // Saving assigns ids from the sequence; the inserts themselves are batched at flush
+            orderRepository.saveAll(accepted);
+            // Each order takes its rows in product id order, but the orders of a batch follow one
+            // another, so lock the rows of the whole batch in id order first, like the command bus
+            stockReservationService.lockStock(accepted);
+            for (Iterator<Order> it = accepted.iterator(); it.hasNext(); ) {
+                Order order = it.next();
+                // Validation checks each order on its own, so orders of the batch can still compete
+                // for the same stock. A shortage comes back as a value: an exception thrown through
+                // the reservation service would mark the whole batch transaction rollback-only
+                Optional<String> shortage = stockReservationService.tryReserve(order);
+                if (shortage.isPresent()) {
+                    // The batch was inserted by the flush before the stock rows were locked:
+                    // delete the order again so only the accepted ones commit
+                    orderRepository.delete(order);
+                    rejected.put(order, shortage.get());
+                    it.remove();
+                }
+            }
+            for (Order order : accepted) {
+                notificationService.publish(OrderEvent.of(OrderEventType.CREATED, order, null));
+            }
+            log.info("Batch created {} orders, rejected {}", accepted.size(), rejected.size());
+
+            List<BatchOrderResult> results = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                String error = rejected.get(order);
+                results.add(error == null ? BatchOrderResult.created(i, order.getId()) : BatchOrderResult.rejected(i, error));
+            }
+            return results;
+        }));
     }
 
     /**
      * Places an order using the Command pattern.
+     * With the command bus enabled the command is queued and applied in a group commit.
      */
-    @Transactional
     public Order placeOrder(Long orderId) {
-        Order order = getOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
-
-        // Use Command pattern to place the order
-        OrderCommand placeCommand = new PlaceOrderCommand(order, orderRepository, productRepository,
-                notificationService);
-        placeCommand.execute();
-
-        return orderRepository.save(order);
+        return operationMetrics.record("placeOrder", () -> {
+            if (orderCommandBus.isEnabled()) {
+                return await(orderCommandBus.submit("placeOrder", orderId, this::placeCommand));
+            }
+            return inRetryingTransaction("placeOrder", () -> {
+                Order order = getOrderById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+
+                // Use Command pattern to place the order
+                OrderCommand placeCommand = placeCommand(order);
+                placeCommand.execute();
+
+                return orderRepository.save(order);
+            });
+        });
     }
 
     /**
      * Cancels an order using the Command pattern.
+     * With the command bus enabled the command is queued and applied in a group commit.
      */
-    @Transactional
     public Order cancelOrder(Long orderId) {
-        Order order = getOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
-
-        // Use Command pattern to cancel the order
-        OrderCommand cancelCommand = new CancelOrderCommand(order, orderRepository, productRepository,
-                notificationService);
-        cancelCommand.execute();
-
-        return orderRepository.save(order);
+        return operationMetrics.record("cancelOrder", () -> {
+            if (orderCommandBus.isEnabled()) {
+                return await(orderCommandBus.submit("cancelOrder", orderId, this::cancelCommand));
+            }
+            return inRetryingTransaction("cancelOrder", () -> {
+                Order order = getOrderById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+
+                // Use Command pattern to cancel the order
+                OrderCommand cancelCommand = cancelCommand(order);
+                cancelCommand.execute();
+
+                return orderRepository.save(order);
+            });
+        });
     }
 
     /**
-     * Processes payment using the Strategy pattern.
+     * Processes payment using the Strategy pattern and waits for the result.
+     *
+     * @see #processPaymentAsync(Long, String)
      */
-    @Transactional
     public Order processPayment(Long orderId, String paymentMethod) {
-        Order order = getOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        return await(processPaymentAsync(orderId, paymentMethod));
+    }
 
-        // Use Strategy pattern to process payment
-        PaymentStrategy strategy = paymentStrategies.get(paymentMethod.toLowerCase());
-        if (strategy == null) {
-            throw new IllegalArgumentException("Unknown payment method: " + paymentMethod);
-        }
+    /**
+     * Processes payment using the Strategy pattern without holding a transaction or a
+     * request thread while the gateway answers. A short transaction moves the order to
+     * PAYMENT_PENDING, the charge runs through the {@link PaymentProcessor}, and a second
+     * short transaction records the outcome: PAID when approved, the previous status when
+     * the payment was declined or never sent. When the outcome is unknown (timeout or
+     * gateway error) the order stays PAYMENT_PENDING until paid again or reconciled (see
+     * {@link #reconcilePayment(Long)}); both are safe because the gateway reference is
+     * derived from the order id.
+     *
+     * @return a future completed with the paid order, or failed with PaymentNotCompletedException
+     * when the payment did not go through, or IllegalStateException when the order is already paid
+     * @throws IllegalArgumentException if the order or the payment method does not exist
+     */
+    public CompletableFuture<Order> processPaymentAsync(Long orderId, String paymentMethod) {
+        return operationMetrics.recordAsync("processPayment", () -> {
+            // Use Strategy pattern to process payment
+            paymentProcessor.strategy(paymentMethod);
+
+            PendingPayment pending = inRetryingTransaction("processPayment", () -> {
+                Order order = getOrderById(orderId)
+                        .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+
+                if (order.getStatus() == OrderStatus.PAID) {
+                    log.warn("Order {} is already paid", orderId);
+                    throw new IllegalStateException("Order is already paid");
+                }
+
+                // Claim the order first: the version check runs on flush, so a concurrent
+                // update is detected (and retried) before the customer is charged
+                OrderStatus oldStatus = order.getStatus();
+                order.setPaymentMethod(paymentMethod);
+                order.setPaymentStartedAtMillis(System.currentTimeMillis());
+                if (oldStatus != OrderStatus.PAYMENT_PENDING) {
+                    order.setStatusBeforePayment(oldStatus);
+                    order.updateStatus(OrderStatus.PAYMENT_PENDING);
+                }
+                Order pendingOrder = orderRepository.saveAndFlush(order);
+                if (oldStatus != OrderStatus.PAYMENT_PENDING) {
+                    notificationService.publish(OrderEvent.of(OrderEventType.STATUS_CHANGED, pendingOrder, oldStatus));
+                }
+                return new PendingPayment(oldStatus == OrderStatus.PAYMENT_PENDING, pendingOrder.getTotalAmount());
+            });
+
+            log.info("Processing payment for order {} using {}", orderId, paymentMethod);
+            return paymentProcessor.pay(paymentMethod, paymentReference(orderId), pending.amount())
+                    .thenApply(result -> completePayment(orderId, result, pending.resumed()));
+        });
+    }
 
-        log.info("Processing payment for order {} using {}", orderId, paymentMethod);
-        strategy.pay(order.getTotalAmount());
+    /**
+     * Resends the charge of an order left in PAYMENT_PENDING with the same gateway reference,
+     * so the gateway answers with the outcome of the original charge instead of charging again,
+     * and records that outcome like {@link #processPaymentAsync(Long, String)}. Does nothing
+     * for an order that is no longer waiting for its payment.
+     *
+     * @return a future completed with the order as left by the outcome; failed with
+     * PaymentNotCompletedException if the payment still did not go through
+     */
+    public CompletableFuture<Order> reconcilePayment(Long orderId) {
+        Order order = getOrderById(orderId).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.PAYMENT_PENDING) {
+            return CompletableFuture.completedFuture(order);
+        }
+        log.info("Reconciling payment for order {} using {}", orderId, order.getPaymentMethod());
+        return paymentProcessor.pay(order.getPaymentMethod(), paymentReference(orderId), order.getTotalAmount())
+                .thenApply(result -> completePayment(orderId, result, true));
+    }
 
-        order.setPaymentMethod(paymentMethod);
-        order.updateStatus("PAID");
+    /**
+     * Ids of orders whose payment has been in progress for longer than {@code staleAfterMs}.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> findStalePayments(long staleAfterMs, int limit) {
+        return orderRepository.findIdsByStatusAndPaymentStartedBefore(OrderStatus.PAYMENT_PENDING,
+                System.currentTimeMillis() - staleAfterMs, PageRequest.ofSize(limit));
+    }
 
-        // Notify observers about payment
-        notificationService.notifyObservers("Payment processed for order: " + orderId);
+    /**
+     * Records the outcome of a payment on the order in its own short transaction.
+     * A rejected attempt never reached the gateway, so when it {@code resumed} a payment
+     * whose outcome was already unknown, the order stays PAYMENT_PENDING.
+     */
+    private Order completePayment(Long orderId, PaymentResult result, boolean resumed) {
+        Order order = inRetryingTransaction("completePayment", () -> {
+            Order pendingOrder = getOrderById(orderId)
+                    .orElseThrow(() -> new IllegalStateException("Order not found: " + orderId));
+            if (pendingOrder.getStatus() != OrderStatus.PAYMENT_PENDING) {
+                // Another attempt already recorded an outcome
+                return pendingOrder;
+            }
+            OrderStatus previousStatus = pendingOrder.getStatusBeforePayment();
+            switch (result.status()) {
+                case APPROVED -> {
+                    pendingOrder.setStatusBeforePayment(null);
+                    pendingOrder.setPaymentStartedAtMillis(null);
+                    pendingOrder.updateStatus(OrderStatus.PAID);
+                    Order paidOrder = orderRepository.save(pendingOrder);
+                    // Notify observers about payment
+                    notificationService.publish(OrderEvent.of(OrderEventType.PAID, paidOrder, OrderStatus.PAYMENT_PENDING));
+                    return paidOrder;
+                }
+                case DECLINED, REJECTED -> {
+                    if (previousStatus == null || (resumed && result.status() == PaymentResult.Status.REJECTED)) {
+                        return pendingOrder;
+                    }
+                    pendingOrder.setStatusBeforePayment(null);
+                    pendingOrder.setPaymentStartedAtMillis(null);
+                    pendingOrder.updateStatus(previousStatus);
+                    Order revertedOrder = orderRepository.save(pendingOrder);
+                    notificationService.publish(OrderEvent.of(OrderEventType.STATUS_CHANGED, revertedOrder,
+                            OrderStatus.PAYMENT_PENDING));
+                    return revertedOrder;
+                }
+                default -> {
+                    return pendingOrder;
+                }
+            }
+        });
+        if (!result.isApproved() && order.getStatus() != OrderStatus.PAID) {
+            log.warn("Payment for order {} was not completed: {} {}", orderId, result.status(), result.message());
+            throw new PaymentNotCompletedException(result, order);
+        }
+        return order;
+    }
 
-        return orderRepository.save(order);
+    private static String paymentReference(Long orderId) {
+        return "order-" + orderId;
     }
 
     /**
-     * Gets an order by ID.
+     * Gets an order by ID, with its items fetched in the same query.
      */
     @Transactional(readOnly = true)
     public Optional<Order> getOrderById(Long id) {
         log.debug("Fetching order with ID: {}", id);
-        return orderRepository.findById(id);
+        return orderRepository.findWithItemsById(id);
+    }
+
+    /**
+     * Gets one page of orders with an id greater than {@code afterId} (keyset pagination).
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getOrdersPage(Long afterId, int size) {
+        log.debug("Fetching {} orders after ID: {}", size, afterId);
+        // Fetch one extra row to know whether another page exists
+        return toPage(orderRepository.findSummariesAfter(afterId, PageRequest.ofSize(size + 1)), size);
     }
 
     /**
-     * Gets all orders.
+     * Streams every order summary to the consumer in id order. Summaries are not managed
+     * entities, so memory use stays constant however many orders exist.
      */
     @Transactional(readOnly = true)
-    public List<Order> getAllOrders() {
-        log.debug("Fetching all orders");
-        return orderRepository.findAll();
+    public void streamAllOrders(Consumer<OrderSummary> consumer) {
+        log.debug("Streaming all orders");
+        try (Stream<OrderSummary> orders = orderRepository.streamAllSummaries()) {
+            orders.forEach(consumer);
+        }
     }
 
     /**
-     * Gets orders by status.
+     * Gets one page of orders with the given status, as a range scan of the (status, id) index.
      */
-    public List<Order> getOrdersByStatus(String status) {
-        log.debug("Fetching orders with status: {}", status);
-        return orderRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public CursorPage<OrderSummary> getOrdersByStatus(String status, Long afterId, int size) {
+        log.debug("Fetching {} orders with status {} after ID: {}", size, status, afterId);
+        OrderStatus orderStatus = OrderStatus.parse(status);
+        return toPage(orderRepository.findSummariesByStatusAfter(orderStatus, afterId,
+                PageRequest.ofSize(size + 1)), size);
     }
 
     /**
      * Updates order status and notifies observers.
      */
-    @Transactional
     public Order updateOrderStatus(Long orderId, String newStatus) {
-        Order order = getOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        OrderStatus status = OrderStatus.parse(newStatus);
+        return inRetryingTransaction("updateOrderStatus", () -> {
+            Order order = getOrderById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
 
-        order.updateStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
+            OrderStatus oldStatus = order.getStatus();
+            order.updateStatus(status);
+            Order updatedOrder = orderRepository.save(order);
 
-        // Notify observers about status change (Observer pattern)
-        notificationService.notifyObservers("Order " + orderId + " status changed to: " + newStatus);
+            // Notify observers about status change (Observer pattern)
+            notificationService.publish(OrderEvent.of(OrderEventType.STATUS_CHANGED, updatedOrder, oldStatus));
 
-        return updatedOrder;
+            return updatedOrder;
+        });
     }
 
     /**
-     * Adds an item to an existing order.
+     * Adds an item to an existing order, priced from the product catalog.
      */
-    @Transactional
     public Order addItemToOrder(Long orderId, OrderItem item) {
-        Order order = getOrderById(orderId)
-                .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+        return inRetryingTransaction("addItemToOrder", () -> {
+            Order order = getOrderById(orderId)
+                    .orElseThrow(() -> new IllegalArgumentException("Order not found: " + orderId));
+
+            // Copy the item so a retried attempt never reuses state from a rolled-back one
+            OrderItem newItem = new OrderItem(item.getProductName(), item.getQuantity(), item.getPrice());
+            orderPricer.price(newItem);
+            order.addItem(newItem);
+            order.setTotalAmount(order.getTotalAmount().plus(newItem.getSubtotal()));
+            order.setItemCount(order.getItemCount() + 1);
+
+            return orderRepository.save(order);
+        });
+    }
+
+    private OrderCommand placeCommand(Order order) {
+        return new PlaceOrderCommand(order, orderRepository, stockReservationService, notificationService);
+    }
+
+    private OrderCommand cancelCommand(Order order) {
+        return new CancelOrderCommand(order, orderRepository, stockReservationService, notificationService);
+    }
+
+    /**
+     * Waits for an asynchronous result, rethrowing the exception it failed with.
+     */
+    private static Order await(CompletableFuture<Order> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the back-reference of every item, which JSON deserialization leaves empty.
+     */
+    private static void linkItems(Order order) {
+        for (OrderItem item : order.getItems()) {
+            item.setOrder(order);
+        }
+    }
+
+    /**
+     * Turns a query result fetched with one extra row into a page and its cursor.
+     */
+    private static CursorPage<OrderSummary> toPage(List<OrderSummary> orders, int size) {
+        if (orders.size() <= size) {
+            return new CursorPage<>(orders, null);
+        }
+        List<OrderSummary> page = orders.subList(0, size);
+        return new CursorPage<>(page, page.get(size - 1).id());
+    }
 
-        order.addItem(item);
-        order.setTotalAmount(order.getTotalAmount() + item.getSubtotal());
+    /**
+     * Runs the work in a fresh transaction, retrying the whole transaction on optimistic lock conflicts.
+     */
+    private <T> T inRetryingTransaction(String operation, Supplier<T> work) {
+        return optimisticLockRetry.execute(operation, () -> transactionTemplate.execute(status -> work.get()));
+    }
 
-        return orderRepository.save(order);
+    /**
+     * @param resumed whether the order was already waiting for an earlier payment attempt
+     */
+    private record PendingPayment(boolean resumed, Money amount) {
     }
 }
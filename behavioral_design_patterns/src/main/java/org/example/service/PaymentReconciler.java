@@ -0,0 +1,67 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.payment.PaymentNotCompletedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Periodically settles orders left in PAYMENT_PENDING by a payment whose outcome was unknown
+ * (gateway timeout or error) and that the customer never retried. Each stale payment is resent
+ * with its original reference, so the gateway reports what happened to the first charge and
+ * the order ends up PAID or back in its previous status, where it can be cancelled again.
+ */
+@Component
+@Slf4j
+public class PaymentReconciler {
+
+    private final OrderService orderService;
+    private final long staleAfterMs;
+    private final int batchSize;
+
+    public PaymentReconciler(OrderService orderService,
+                             @Value("${payments.reconcile.stale-after-ms:30000}") long staleAfterMs,
+                             @Value("${payments.reconcile.batch-size:50}") int batchSize) {
+        this.orderService = orderService;
+        this.staleAfterMs = staleAfterMs;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reconciles up to one batch of stale payments and waits for their outcomes.
+     */
+    @Scheduled(fixedDelayString = "${payments.reconcile.interval-ms:10000}")
+    public void reconcile() {
+        List<Long> orderIds = orderService.findStalePayments(staleAfterMs, batchSize);
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        log.info("Reconciling {} stale payments", orderIds.size());
+        CompletableFuture<?>[] attempts = orderIds.stream().map(this::reconcile).toArray(CompletableFuture[]::new);
+        // Wait for the batch so the next run never resends a payment that is still in flight
+        CompletableFuture.allOf(attempts).join();
+    }
+
+    private CompletableFuture<?> reconcile(Long orderId) {
+        CompletableFuture<?> attempt;
+        try {
+            attempt = orderService.reconcilePayment(orderId);
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        return attempt.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof PaymentNotCompletedException) {
+                log.warn("Payment for order {} is still not settled: {}", orderId, cause.getMessage());
+            } else {
+                log.error("Reconciling payment for order {} failed", orderId, cause);
+            }
+            return null;
+        });
+    }
+}
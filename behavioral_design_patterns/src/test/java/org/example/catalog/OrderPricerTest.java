@@ -0,0 +1,58 @@
+package org.example.catalog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class OrderPricerTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final OrderPricer pricer = new OrderPricer(
+            new ProductCatalog(repository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry()));
+
+    @Test
+    void priceAll_shouldReplaceClientPricesAndTotalsWithOneLookup() {
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(
+                new Product("Laptop", Money.of("999.99"), 10), new Product("Tablet", Money.of("449.99"), 10)));
+        Order first = order(new OrderItem("Laptop", 2, Money.of("0.01")), new OrderItem("Tablet", 1, Money.of("0.01")));
+        Order second = order(new OrderItem("Tablet", 3, Money.of("1.00")));
+
+        pricer.priceAll(List.of(first, second));
+
+        assertEquals(Money.of("2449.97"), first.getTotalAmount());
+        assertEquals(2, first.getItemCount());
+        assertEquals(Money.of("449.99"), first.getItems().get(1).getPrice());
+        assertEquals(Money.of("1349.97"), second.getTotalAmount());
+        assertEquals(1, second.getItemCount());
+        verify(repository, times(1)).findByNameIn(anyCollection());
+    }
+
+    @Test
+    void price_unknownProduct_shouldKeepItemForInventoryCheck() {
+        Order order = order(new OrderItem("Unknown", 1, Money.of("5.00")));
+
+        pricer.price(order);
+
+        assertEquals(Money.of("5.00"), order.getTotalAmount());
+        assertThrows(IllegalArgumentException.class, () -> pricer.price(new OrderItem("Unknown", 1, Money.ZERO)));
+    }
+
+    private static Order order(OrderItem... items) {
+        Order order = new Order("alice", Money.of("1.00"));
+        for (OrderItem item : items) {
+            order.addItem(item);
+        }
+        return order;
+    }
+}
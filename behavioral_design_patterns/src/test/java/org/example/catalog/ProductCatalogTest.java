@@ -0,0 +1,68 @@
+package org.example.catalog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.model.Money;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ProductCatalogTest {
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void find_repeatedLookup_shouldBeServedFromCache() {
+        productRepository.save(new Product("Cached", Money.of("10.0"), 5));
+        double hitsBefore = hits();
+
+        assertEquals(Money.of("10.0"), productCatalog.find("Cached").orElseThrow().price());
+        assertEquals(Money.of("10.0"), productCatalog.find("Cached").orElseThrow().price());
+
+        assertEquals(hitsBefore + 1, hits());
+    }
+
+    @Test
+    void find_afterProductUpdate_shouldReturnFreshEntry() {
+        Product product = productRepository.save(new Product("Repriced", Money.of("10.0"), 5));
+        assertEquals(Money.of("10.0"), productCatalog.find("Repriced").orElseThrow().price());
+
+        product = productRepository.findById(product.getId()).orElseThrow();
+        product.setPrice(Money.of("12.5"));
+        product.reduceStock(1);
+        productRepository.save(product);
+
+        assertEquals(Money.of("12.5"), productCatalog.find("Repriced").orElseThrow().price());
+    }
+
+    @Test
+    void findAll_unknownProduct_shouldNotBeCached() {
+        productRepository.save(new Product("Known", Money.of("1.0"), 1));
+
+        Map<String, CatalogEntry> found = productCatalog.findAll(List.of("Known", "Late"));
+        assertTrue(found.containsKey("Known"));
+        assertFalse(found.containsKey("Late"));
+
+        productRepository.save(new Product("Late", Money.of("2.0"), 1));
+        assertTrue(productCatalog.find("Late").isPresent());
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets").tag("cache", ProductCatalog.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.command;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.inventory.StockReservationService;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.example.model.Product;
+import org.example.notification.NotificationService;
+import org.example.repository.OrderRepository;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "orders.command-bus.enabled=true",
+        "orders.command-bus.shards=2"})
+class OrderCommandBusTest {
+
+    private static final int ORDERS = 40;
+
+    @Autowired
+    private OrderCommandBus commandBus;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void submit_burst_shouldApplyInBatchesAndCompleteEveryCaller() {
+        productRepository.save(new Product("Bursty", Money.of("2.00"), ORDERS));
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orderIds.add(orderService.createOrder(order("Bursty")).getId());
+        }
+        double batchesBefore = meterRegistry.summary("orders.commands.batch.size").count();
+
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            results.add(commandBus.submit("placeOrder", orderId, place()));
+        }
+
+        for (CompletableFuture<Order> result : results) {
+            assertEquals(OrderStatus.PLACED, result.join().getStatus());
+        }
+        double batches = meterRegistry.summary("orders.commands.batch.size").count() - batchesBefore;
+        assertTrue(batches < ORDERS, "expected group commits, got " + batches + " batches");
+        assertEquals(0, productRepository.findByName("Bursty").orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void submit_failingCommandInBatch_shouldOnlyFailItsOwnCaller() {
+        productRepository.save(new Product("Mixed", Money.of("2.00"), 10));
+        Long first = orderService.createOrder(order("Mixed")).getId();
+        Long second = orderService.createOrder(order("Mixed")).getId();
+        orderService.cancelOrder(second);
+
+        CompletableFuture<Order> placed = commandBus.submit("placeOrder", first, place());
+        CompletableFuture<Order> alreadyCancelled = commandBus.submit("placeOrder", second, place());
+        CompletableFuture<Order> missing = commandBus.submit("placeOrder", Long.MAX_VALUE, place());
+
+        assertEquals(OrderStatus.PLACED, placed.join().getStatus());
+        CompletionException failure = assertThrows(CompletionException.class, alreadyCancelled::join);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        failure = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+    }
+
+    @Test
+    void submit_ordersSharingProductsAcrossShards_shouldAllComplete() {
+        productRepository.save(new Product("Left", Money.of("2.00"), ORDERS));
+        productRepository.save(new Product("Right", Money.of("2.00"), ORDERS));
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            // Alternate the item order so batches on both writers touch the products in both orders
+            Order order = i % 2 == 0 ? order("Left", "Right") : order("Right", "Left");
+            orderIds.add(orderService.createOrder(order).getId());
+        }
+
+        List<CompletableFuture<Order>> results = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            results.add(commandBus.submit("cancelOrder", orderId, order -> new CancelOrderCommand(order,
+                    orderRepository, stockReservationService, notificationService)));
+        }
+
+        for (CompletableFuture<Order> result : results) {
+            assertEquals(OrderStatus.CANCELLED, result.join().getStatus());
+        }
+        assertEquals(ORDERS, productRepository.findByName("Left").orElseThrow().getStockQuantity());
+        assertEquals(ORDERS, productRepository.findByName("Right").orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void cancelOrder_withBusEnabled_shouldGoThroughTheBus() {
+        productRepository.save(new Product("Routed", Money.of("2.00"), 3));
+        Long orderId = orderService.createOrder(order("Routed")).getId();
+
+        assertEquals(OrderStatus.CANCELLED, orderService.cancelOrder(orderId).getStatus());
+        assertEquals(3, productRepository.findByName("Routed").orElseThrow().getStockQuantity());
+        assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(orderId));
+    }
+
+    private Function<Order, OrderCommand> place() {
+        return order -> new PlaceOrderCommand(order, orderRepository, stockReservationService, notificationService);
+    }
+
+    private static Order order(String... productNames) {
+        Order order = new Order("bus-customer", Money.of("2.00"));
+        for (String productName : productNames) {
+            order.addItem(new OrderItem(productName, 1, Money.of("2.00")));
+        }
+        return order;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.command;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class PlaceOrderCommandConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int STOCK = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void createOrder_concurrentOrders_shouldNeverOversell() throws Exception {
+        productRepository.save(new Product("Contended", Money.of("5.0"), STOCK));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Long> orderIds = new CopyOnWriteArrayList<>();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String customer = "customer-" + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                Order order = new Order(customer, Money.of("5.0"));
+                order.addItem(new OrderItem("Contended", 1, Money.of("5.0")));
+                try {
+                    orderIds.add(orderService.createOrder(order).getId());
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK, orderIds.size());
+        assertEquals(THREADS - STOCK, rejected.get());
+        assertEquals(0, productRepository.findByName("Contended").orElseThrow().getStockQuantity());
+
+        // Every order that got a hold can be placed without touching the stock again
+        orderIds.forEach(orderService::placeOrder);
+        assertEquals(0, productRepository.findByName("Contended").orElseThrow().getStockQuantity());
+        assertEquals(STOCK, orderService.getOrdersByStatus("PLACED", 0L, THREADS).items().size());
+    }
+
+    @Test
+    void cancelOrder_placedOrder_shouldRestoreStock() {
+        productRepository.save(new Product("Restockable", Money.of("5.0"), 3));
+        Order order = new Order("customer", Money.of("10.0"));
+        order.addItem(new OrderItem("Restockable", 2, Money.of("5.0")));
+        Long orderId = orderService.createOrder(order).getId();
+
+        orderService.placeOrder(orderId);
+        assertEquals(1, productRepository.findByName("Restockable").orElseThrow().getStockQuantity());
+
+        orderService.cancelOrder(orderId);
+        assertEquals(3, productRepository.findByName("Restockable").orElseThrow().getStockQuantity());
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InFlightLimitFilterTest {
+
+    private final HikariDataSource dataSource = new HikariDataSource();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Test
+    void doFilter_platformThreads_shouldCountButNotLimit() throws Exception {
+        InFlightLimitFilter filter = filter(null, new MockEnvironment());
+        CountDownLatch entered = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+
+        for (int i = 0; i < 3; i++) {
+            send(filter, new MockHttpServletResponse(), blocking(entered, release));
+        }
+
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        assertFalse(filter.isLimiting());
+        assertEquals(2, filter.getLimit());
+        assertEquals(3, filter.getPeakInFlight());
+        release.countDown();
+    }
+
+    @Test
+    void doFilter_limitEnabledOnPlatformThreads_shouldRejectRequestsBeyondThePoolSize() throws Exception {
+        InFlightLimitFilter filter = filter(true, new MockEnvironment());
+        CountDownLatch entered = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            send(filter, new MockHttpServletResponse(), blocking(entered, release));
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        send(filter, rejected, (req, res) -> fail("should have been rejected")).get(5, TimeUnit.SECONDS);
+
+        assertTrue(filter.isLimiting());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests in progress"));
+        assertEquals(2, filter.getPeakInFlight());
+
+        // A permit freed by a finished request lets the next one through
+        release.countDown();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        send(filter, admitted, (req, res) -> ((HttpServletResponse) res).setStatus(201)).get(5, TimeUnit.SECONDS);
+        assertEquals(201, admitted.getStatus());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void doFilter_limitDisabledOnVirtualThreads_shouldNotLimit() {
+        InFlightLimitFilter filter = filter(false,
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        assertFalse(filter.isLimiting());
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void doFilter_virtualThreads_shouldRejectRequestsBeyondThePoolSize() throws Exception {
+        InFlightLimitFilter filter = filter(null,
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+        CountDownLatch entered = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            send(filter, new MockHttpServletResponse(), blocking(entered, release));
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        Future<?> third = send(filter, rejected, (req, res) -> fail("should have been rejected"));
+        third.get(5, TimeUnit.SECONDS);
+
+        assertTrue(filter.isLimiting());
+        assertEquals(503, rejected.getStatus());
+        assertEquals(2, filter.getPeakInFlight());
+        release.countDown();
+    }
+
+    private InFlightLimitFilter filter(Boolean limitInFlight, MockEnvironment environment) {
+        dataSource.setMaximumPoolSize(2);
+        return new InFlightLimitFilter(limitInFlight, 0, Duration.ofMillis(50), environment, dataSource,
+                new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private Future<?> send(InFlightLimitFilter filter, MockHttpServletResponse response, FilterChain chain) {
+        return executor.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"), response, chain);
+            return null;
+        });
+    }
+
+    private static FilterChain blocking(CountDownLatch entered, CountDownLatch release) {
+        return (request, response) -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.controller;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "notifications.outbox.poll-interval-ms=20"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void prometheus_afterOrderOperations_shouldExposeLatencyHistogramsAndConflictCounters() throws Exception {
+        Order order = new Order("metrics-customer", Money.ZERO);
+        order.addItem(new OrderItem("Headphones", 1, Money.ZERO));
+        Long orderId = orderService.createOrder(order).getId();
+        orderService.placeOrder(orderId);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("orders_operation_seconds_bucket{"
+                        + "application=\"behavioral-design-patterns\",operation=\"placeOrder\",outcome=\"success\",le=")))
+                .andExpect(content().string(containsString("orders_validation_handler_seconds_bucket{")))
+                .andExpect(content().string(containsString("inventory_stock_conflicts_total{")))
+                .andExpect(content().string(containsString("notifications_observer_latency_seconds")));
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void getAllOrders_shouldFollowCursorAcrossPages() throws Exception {
+        List<Long> ids = createOrders(3);
+        long afterId = ids.get(0) - 1;
+
+        mockMvc.perform(get("/api/orders").param("afterId", String.valueOf(afterId)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(ids.get(0)))
+                .andExpect(jsonPath("$.nextCursor").value(ids.get(1)));
+
+        mockMvc.perform(get("/api/orders").param("afterId", String.valueOf(ids.get(1))).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(ids.get(2)));
+    }
+
+    @Test
+    void createOrder_priceWithTooManyDecimals_shouldBeBadRequest() throws Exception {
+        String body = """
+                {"customerName": "precise", "totalAmount": 999.99,
+                 "items": [{"productName": "Laptop", "quantity": 1, "price": 999.999}]}
+                """;
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid USD amount: 999.999"));
+    }
+
+    @Test
+    void createOrder_nullPrice_shouldBeBadRequest() throws Exception {
+        String body = """
+                {"customerName": "priceless", "totalAmount": 10.0,
+                 "items": [{"productName": "Nonexistent", "quantity": 1, "price": null}]}
+                """;
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid `null` value encountered for property \"price\""));
+    }
+
+    @Test
+    void createOrder_shouldIgnoreClientTotalAndListAggregates() throws Exception {
+        String body = """
+                {"customerName": "underpaying", "totalAmount": 0.01,
+                 "items": [{"productName": "Headphones", "quantity": 2, "price": 0.01}]}
+                """;
+
+        String response = mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalAmount").value(299.98))
+                .andExpect(jsonPath("$.items[0].price").value(149.99))
+                .andReturn().getResponse().getContentAsString();
+
+        Long id = JsonPath.parse(response).read("$.id", Long.class);
+        mockMvc.perform(get("/api/orders").param("afterId", String.valueOf(id - 1)).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].itemCount").value(1))
+                .andExpect(jsonPath("$.items[0].totalAmount").value(299.98));
+    }
+
+    @Test
+    void getAllOrders_oversizedPage_shouldBeCapped() throws Exception {
+        createOrders(1);
+
+        mockMvc.perform(get("/api/orders").param("size", "100000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(
+                        org.hamcrest.Matchers.lessThanOrEqualTo(OrderController.MAX_PAGE_SIZE)));
+    }
+
+    @Test
+    void getOrdersByStatus_shouldPageThroughMatchingOrders() throws Exception {
+        List<Long> ids = createOrders(3);
+        long afterId = ids.get(0) - 1;
+
+        mockMvc.perform(get("/api/orders/status/pending").param("afterId", String.valueOf(afterId)).param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.nextCursor").value(ids.get(1)));
+    }
+
+    @Test
+    void getOrdersByStatus_unknownStatus_shouldBeBadRequest() throws Exception {
+        mockMvc.perform(get("/api/orders/status/LOST")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createOrders_shouldReturnOneResultPerOrder() throws Exception {
+        String body = """
+                [
+                  {"customerName": "batch-1", "totalAmount": 149.99,
+                   "items": [{"productName": "Headphones", "quantity": 1, "price": 149.99}]},
+                  {"customerName": "batch-2", "totalAmount": 10.0,
+                   "items": [{"productName": "Nonexistent", "quantity": 1, "price": 10.0}]},
+                  {"customerName": "batch-3", "totalAmount": 449.99,
+                   "items": [{"productName": "Tablet", "quantity": 1, "price": 449.99}]}
+                ]
+                """;
+
+        String response = mockMvc.perform(post("/api/orders/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].created").value(true))
+                .andExpect(jsonPath("$[1].created").value(false))
+                .andExpect(jsonPath("$[1].error").value("Product not found: Nonexistent"))
+                .andExpect(jsonPath("$[2].created").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        Long firstId = JsonPath.parse(response).read("$[0].orderId", Long.class);
+        mockMvc.perform(get("/api/orders/" + firstId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1));
+    }
+
+    @Test
+    void streamAllOrders_shouldWriteOneJsonObjectPerLine() throws Exception {
+        List<Long> ids = createOrders(2);
+
+        MvcResult started = mockMvc.perform(get("/api/orders/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length >= 2);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"));
+        }
+        assertTrue(body.contains("\"id\":" + ids.get(1)));
+    }
+
+    @Test
+    void processPayment_shouldCompleteAsynchronouslyAndMarkOrderPaid() throws Exception {
+        Long id = createOrders(1).get(0);
+
+        MvcResult started = mockMvc.perform(post("/api/orders/" + id + "/pay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentMethod\":\"creditcard\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAID"));
+
+        MvcResult again = mockMvc.perform(post("/api/orders/" + id + "/pay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentMethod\":\"creditcard\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(again))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateOrderStatus_unknownStatus_shouldBeBadRequest() throws Exception {
+        Long id = createOrders(1).get(0);
+
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"LOST\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateOrderStatus_missingOrder_shouldBeNotFound() throws Exception {
+        mockMvc.perform(put("/api/orders/999999/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"SHIPPED\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private List<Long> createOrders(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("page-customer-" + i, Money.of("149.99"));
+            order.addItem(new OrderItem("Headphones", 1, Money.of("149.99")));
+            ids.add(orderService.createOrder(order).getId());
+        }
+        return ids;
+    }
+}
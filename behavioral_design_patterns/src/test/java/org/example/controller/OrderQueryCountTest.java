@@ -0,0 +1,92 @@
+package org.example.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.service.OrderService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Guards the fetch plan of every read endpoint: each must cost a fixed number of SQL
+ * statements however many orders and items exist. Background outbox polling is
+ * disabled so only the request's statements are counted.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "notifications.outbox.enabled=false"})
+@AutoConfigureMockMvc
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long lastOrderId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("count-customer", Money.of("299.98"));
+            order.addItem(new OrderItem("Headphones", 1, Money.of("149.99")));
+            order.addItem(new OrderItem("Headphones", 1, Money.of("149.99")));
+            lastOrderId = orderService.createOrder(order).getId();
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllOrders_shouldUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/orders").param("size", "100")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrdersByStatus_shouldUseOneStatement() throws Exception {
+        mockMvc.perform(get("/api/orders/status/PENDING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].items").doesNotExist());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrderById_shouldFetchItemsInTheSameStatement() throws Exception {
+        mockMvc.perform(get("/api/orders/" + lastOrderId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAllOrders_shouldUseOneStatement() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/orders/stream")).andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
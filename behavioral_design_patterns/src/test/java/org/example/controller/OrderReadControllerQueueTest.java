@@ -0,0 +1,63 @@
+package org.example.controller;
+
+import org.example.query.OrderQueryService;
+import org.example.query.OrderReadStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class OrderReadControllerQueueTest {
+
+    private final OrderReadStore readStore = mock(OrderReadStore.class);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OrderQueryService orderQueryService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        orderQueryService.shutdown();
+    }
+
+    @Test
+    void getOrderById_readQueueFull_shouldReturnServiceUnavailable() throws Exception {
+        // One read thread with room for one queued query
+        when(readStore.getPoolSize()).thenReturn(1);
+        when(readStore.findById(anyLong())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        orderQueryService = new OrderQueryService(readStore, 1, 200, Duration.ofSeconds(30));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new OrderReadController(orderQueryService)).build();
+
+        MvcResult running = mockMvc.perform(get("/api/read/orders/1")).andReturn();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        MvcResult queued = mockMvc.perform(get("/api/read/orders/2")).andReturn();
+        MvcResult rejected = mockMvc.perform(get("/api/read/orders/3")).andReturn();
+
+        mockMvc.perform(asyncDispatch(rejected))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Too many reads in progress, try again shortly"));
+
+        release.countDown();
+        mockMvc.perform(asyncDispatch(running)).andExpect(status().isNotFound());
+        mockMvc.perform(asyncDispatch(queued)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.controller;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"orders.read.stream-page-size=2", "orders.read.stream-idle-timeout=1s",
+        "notifications.outbox.enabled=false"})
+@AutoConfigureMockMvc
+class OrderReadControllerTest {
+
+    private static final int ORDERS = 5;
+    private static final String PRODUCT = "read-headphones";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // The context is shared with other read tests, so orders draw on a product of their own
+        if (productRepository.findByName(PRODUCT).isEmpty()) {
+            productRepository.save(new Product(PRODUCT, Money.of("149.99"), 1_000_000));
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("read-customer-" + i, Money.of("299.98"));
+            order.addItem(new OrderItem(PRODUCT, 1, Money.of("149.99")));
+            order.addItem(new OrderItem(PRODUCT, 1, Money.of("149.99")));
+            orderIds.add(orderService.createOrder(order).getId());
+        }
+    }
+
+    @Test
+    void getOrderById_existingOrder_shouldReturnOrderWithItems() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/read/orders/" + orderIds.get(0)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("read-customer-0"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.totalAmount").value(299.98))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[1].price").value(149.99));
+    }
+
+    @Test
+    void getOrderById_shouldReturnTheSameJsonAsTheOrderApi() throws Exception {
+        String orderApi = mockMvc.perform(get("/api/orders/" + orderIds.get(0)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MvcResult started = mockMvc.perform(get("/api/read/orders/" + orderIds.get(0))).andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").isNumber())
+                .andExpect(content().json(orderApi, true));
+    }
+
+    @Test
+    void getOrderById_missingOrder_shouldReturnNotFound() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/read/orders/999999")).andReturn();
+
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getOrdersByStatus_shouldReturnKeysetPage() throws Exception {
+        long afterId = orderIds.get(0) - 1;
+        MvcResult started = mockMvc.perform(get("/api/read/orders/status/pending")
+                        .param("afterId", String.valueOf(afterId))
+                        .param("size", "3"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.items[0].id").value(orderIds.get(0)))
+                .andExpect(jsonPath("$.nextCursor").value(orderIds.get(2)));
+    }
+
+    @Test
+    void getOrdersByStatus_unknownStatus_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/read/orders/status/LOST")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamOrdersByStatus_shouldStreamEveryOrderAcrossPagesAsNdjson() throws Exception {
+        long afterId = orderIds.get(0) - 1;
+        MvcResult started = mockMvc.perform(get("/api/read/orders/status/PENDING/stream")
+                        .param("afterId", String.valueOf(afterId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(ORDERS, lines.length);
+        for (int i = 0; i < ORDERS; i++) {
+            assertTrue(lines[i].startsWith("{\"id\":" + orderIds.get(i) + ","), lines[i]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.handler;
+
+import org.example.inventory.HotStockCounters;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class InventoryCheckHandlerTest {
+
+    @Test
+    void validate_shouldLoadAllProductsWithOneQuery() {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(
+                new Product("Laptop", Money.of("999.99"), 10),
+                new Product("Tablet", Money.of("449.99"), 5)));
+
+        Order order = new Order("alice", Money.of("1449.98"));
+        order.addItem(new OrderItem("Laptop", 1, Money.of("999.99")));
+        order.addItem(new OrderItem("Tablet", 1, Money.of("449.99")));
+
+        new InventoryCheckHandler(repository, mock(HotStockCounters.class)).validate(order);
+
+        verify(repository, times(1)).findByNameIn(anyCollection());
+        verify(repository, never()).findByName(any());
+    }
+
+    @Test
+    void validate_shouldReportEveryFailingItem() {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(
+                new Product("Laptop", Money.of("999.99"), 1)));
+
+        Order order = new Order("alice", Money.of("100.0"));
+        order.addItem(new OrderItem("Laptop", 2, Money.of("999.99")));
+        order.addItem(new OrderItem("Unknown", 1, Money.of("1.0")));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new InventoryCheckHandler(repository, mock(HotStockCounters.class)).validate(order));
+
+        assertTrue(ex.getMessage().contains("Insufficient stock for product: Laptop"));
+        assertTrue(ex.getMessage().contains("Product not found: Unknown"));
+    }
+
+    @Test
+    void validate_shouldSumRepeatedLinesForSameProduct() {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(
+                new Product("Laptop", Money.of("999.99"), 3)));
+
+        Order order = new Order("alice", Money.of("100.0"));
+        order.addItem(new OrderItem("Laptop", 2, Money.of("999.99")));
+        order.addItem(new OrderItem("Laptop", 2, Money.of("999.99")));
+
+        assertThrows(IllegalStateException.class,
+                () -> new InventoryCheckHandler(repository, mock(HotStockCounters.class)).validate(order));
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.inventory.HotStockCounters;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelValidationPipelineTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void evaluate_independentHandlers_shouldRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ParallelValidationPipeline pipeline = pipeline(new RendezvousCheck(bothStarted),
+                new OtherRendezvousCheck(bothStarted));
+
+        ValidationReport report = pipeline.evaluate(new Order("alice", Money.of("10.0")));
+
+        // Each handler waits for the other to start, so they only pass if run side by side
+        assertTrue(report.isValid(), () -> String.join("; ", report.failures()));
+    }
+
+    @Test
+    void evaluate_firstFailure_shouldCancelAndInterruptTheRest() throws InterruptedException {
+        BlockingCheck blocking = new BlockingCheck();
+        ParallelValidationPipeline pipeline = pipeline(blocking, new DependentCheck(), new FailingCheck(blocking));
+
+        ValidationReport report = pipeline.evaluate(new Order("alice", Money.of("10.0")));
+
+        assertFalse(report.isValid());
+        assertEquals(List.of("failing check"), report.failures());
+        assertEquals(ValidationReport.Outcome.CANCELLED, outcomeOf(report, "BlockingCheck"));
+        assertEquals(ValidationReport.Outcome.CANCELLED, outcomeOf(report, "DependentCheck"));
+        assertTrue(blocking.interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void validate_failure_shouldThrow() {
+        ParallelValidationPipeline pipeline = pipeline(new PassingCheck(), new FailingCheck(null));
+
+        assertThrows(IllegalStateException.class, () -> pipeline.validate(new Order("alice", Money.of("10.0"))));
+    }
+
+    @Test
+    void constructor_shouldOrderDependenciesFirstAndRejectMissingOnes() {
+        ParallelValidationPipeline pipeline = pipeline(new DependentCheck(), new BlockingCheck());
+
+        assertEquals(List.of("BlockingCheck", "DependentCheck"), pipeline.handlerNames());
+        assertThrows(IllegalArgumentException.class, () -> pipeline(new DependentCheck()));
+    }
+
+    @Test
+    void evaluate_paymentAndInventoryChecks_shouldRunConcurrently() {
+        CountDownLatch inventoryQueried = new CountDownLatch(1);
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByNameIn(anyCollection())).thenAnswer(invocation -> {
+            inventoryQueried.countDown();
+            return List.of(new Product("Laptop", Money.of("999.99"), 10));
+        });
+        ParallelValidationPipeline pipeline = pipeline(new PaymentAfterInventoryCheck(inventoryQueried),
+                new InventoryCheckHandler(repository, mock(HotStockCounters.class)));
+        Order order = new Order("alice", Money.of("999.99"));
+        order.addItem(new OrderItem("Laptop", 1, Money.of("999.99")));
+
+        ValidationReport report = pipeline.evaluate(order);
+
+        // The payment check waits for the inventory query, so it only passes if neither waits for the other
+        assertTrue(report.isValid(), () -> String.join("; ", report.failures()));
+    }
+
+    @Test
+    void validateBatch_shouldMergeRejectionsFromAllHandlers() {
+        ParallelValidationPipeline pipeline = pipeline(new PaymentValidationHandler(), new PassingCheck());
+        Order invalid = new Order("", Money.of("10.0"));
+        Order valid = new Order("bob", Money.of("10.0"));
+        Map<Order, String> rejected = new IdentityHashMap<>();
+
+        pipeline.validateBatch(List.of(invalid, valid), rejected);
+
+        assertEquals(1, rejected.size());
+        assertEquals("Customer name is required", rejected.get(invalid));
+    }
+
+    private ParallelValidationPipeline pipeline(OrderValidationHandler... handlers) {
+        return new ParallelValidationPipeline(List.of(handlers), executor, new SimpleMeterRegistry());
+    }
+
+    private static ValidationReport.Outcome outcomeOf(ValidationReport report, String handler) {
+        return report.results().stream().filter(result -> result.handler().equals(handler))
+                .findFirst().orElseThrow().outcome();
+    }
+
+    /**
+     * The real payment check, run once the inventory check has queried its products.
+     */
+    static class PaymentAfterInventoryCheck extends PaymentValidationHandler {
+        private final CountDownLatch inventoryQueried;
+
+        PaymentAfterInventoryCheck(CountDownLatch inventoryQueried) {
+            this.inventoryQueried = inventoryQueried;
+        }
+
+        @Override
+        public void validate(Order order) {
+            try {
+                if (!inventoryQueried.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Inventory check did not run alongside the payment check");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.validate(order);
+        }
+    }
+
+    static class PassingCheck extends OrderValidationHandler {
+        @Override
+        public void validate(Order order) {
+        }
+    }
+
+    static class RendezvousCheck extends OrderValidationHandler {
+        private final CountDownLatch started;
+
+        RendezvousCheck(CountDownLatch started) {
+            this.started = started;
+        }
+
+        @Override
+        public void validate(Order order) {
+            started.countDown();
+            try {
+                if (!started.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException(getClass().getSimpleName() + " ran alone");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class OtherRendezvousCheck extends RendezvousCheck {
+        OtherRendezvousCheck(CountDownLatch started) {
+            super(started);
+        }
+    }
+
+    /**
+     * Runs until interrupted.
+     */
+    static class BlockingCheck extends OrderValidationHandler {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void validate(Order order) {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Fails once the given check is running, so there is a handler to interrupt.
+     */
+    static class FailingCheck extends OrderValidationHandler {
+        private final BlockingCheck waitFor;
+
+        FailingCheck(BlockingCheck waitFor) {
+            this.waitFor = waitFor;
+        }
+
+        @Override
+        public void validate(Order order) {
+            if (waitFor != null) {
+                try {
+                    waitFor.started.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            throw new IllegalStateException("failing check");
+        }
+    }
+
+    static class DependentCheck extends OrderValidationHandler {
+        @Override
+        public void validate(Order order) {
+        }
+
+        @Override
+        public Set<Class<? extends OrderValidationHandler>> dependsOn() {
+            return Set.of(BlockingCheck.class);
+        }
+    }
+}
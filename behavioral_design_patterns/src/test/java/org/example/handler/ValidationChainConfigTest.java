@@ -0,0 +1,54 @@
+package org.example.handler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationChainConfigTest {
+
+    private ThreadPoolExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void validationExecutor_platformThreads_shouldUseABoundedPool() {
+        executor = new ValidationChainConfig().validationExecutor(3, new MockEnvironment());
+
+        assertEquals(3, executor.getMaximumPoolSize());
+        assertFalse(isVirtual(CompletableFuture.supplyAsync(Thread::currentThread, executor).join()));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void validationExecutor_virtualThreads_shouldRunEveryHandlerOnANewVirtualThread() {
+        executor = new ValidationChainConfig().validationExecutor(3,
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        Thread first = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+        Thread second = CompletableFuture.supplyAsync(Thread::currentThread, executor).join();
+
+        assertTrue(isVirtual(first));
+        assertNotSame(first, second);
+    }
+
+    // Thread.isVirtual() only exists from Java 21, and the default build targets Java 17
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (NoSuchMethodException e) {
+            return false;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.inventory.HotStockCounters;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ValidationChainTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ValidationChain chain = ValidationChain.of(List.of(new PaymentValidationHandler(),
+            new InventoryCheckHandler(repository, mock(HotStockCounters.class))), meterRegistry);
+
+    @Test
+    void validate_invalidAmount_shouldFailBeforeAnyQuery() {
+        Order order = order("alice", "0.0");
+
+        assertThrows(IllegalStateException.class, () -> chain.validate(order));
+
+        verifyNoInteractions(repository);
+        assertEquals(1, timerCount("PaymentValidationHandler", "failed"));
+        assertEquals(0, timerCount("InventoryCheckHandler", "passed"));
+    }
+
+    @Test
+    void validate_validOrder_shouldRunEveryHandlerInOrder() {
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(new Product("Laptop", Money.of("999.99"), 10)));
+
+        chain.validate(order("alice", "999.99"));
+
+        assertEquals(List.of("PaymentValidationHandler", "InventoryCheckHandler"), chain.handlerNames());
+        assertEquals(1, timerCount("PaymentValidationHandler", "passed"));
+        assertEquals(1, timerCount("InventoryCheckHandler", "passed"));
+    }
+
+    @Test
+    void validateBatch_shouldOnlyPassSurvivorsToLaterHandlers() {
+        when(repository.findByNameIn(anyCollection())).thenReturn(List.of(new Product("Laptop", Money.of("999.99"), 10)));
+        Order invalid = order(" ", "999.99");
+        Order valid = order("bob", "999.99");
+        Map<Order, String> rejected = new IdentityHashMap<>();
+
+        chain.validateBatch(List.of(invalid, valid), rejected);
+
+        assertEquals(Map.of(invalid, "Customer name is required"), Map.copyOf(rejected));
+        verify(repository, times(1)).findByNameIn(anyCollection());
+    }
+
+    @Test
+    void of_noHandlers_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ValidationChain.of(List.of(), meterRegistry));
+    }
+
+    private long timerCount(String handler, String outcome) {
+        return meterRegistry.get("orders.validation.handler").tag("handler", handler).tag("outcome", outcome)
+                .timer().count();
+    }
+
+    private static Order order(String customer, String total) {
+        Order order = new Order(customer, Money.of(total));
+        order.addItem(new OrderItem("Laptop", 1, Money.of("999.99")));
+        return order;
+    }
+}
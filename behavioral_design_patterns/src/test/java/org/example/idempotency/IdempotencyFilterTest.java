@@ -0,0 +1,224 @@
+package org.example.idempotency;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.repository.IdempotencyRecordRepository;
+import org.example.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    private static final String ORDER = """
+            {"customerName": "retrying-client", "totalAmount": 149.99,
+             "items": [{"productName": "Headphones", "quantity": 1, "price": 149.99}]}
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Test
+    void createOrder_retriedWithSameKey_shouldReplayWithoutCreatingAnotherOrder() throws Exception {
+        long before = orderRepository.count();
+
+        String first = mockMvc.perform(createOrder("create-1", ORDER))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(createOrder("create-1", ORDER))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(before + 1, orderRepository.count());
+    }
+
+    @Test
+    void createOrder_sameKeyDifferentBody_shouldBeUnprocessable() throws Exception {
+        mockMvc.perform(createOrder("create-2", ORDER)).andExpect(status().isCreated());
+
+        mockMvc.perform(createOrder("create-2", ORDER.replace("retrying-client", "someone-else")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void createOrders_retriedWithSameKey_shouldReplayWithoutCreatingMoreOrders() throws Exception {
+        long before = orderRepository.count();
+        RequestBuilder batch = post("/api/orders/batch").header(IdempotencyFilter.HEADER, "batch-1")
+                .contentType(MediaType.APPLICATION_JSON).content("[" + ORDER + "," + ORDER + "]");
+
+        String first = mockMvc.perform(batch)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(batch)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(before + 2, orderRepository.count());
+    }
+
+    @Test
+    void processPayment_retriedWithSameKey_shouldReplayAsyncResponse() throws Exception {
+        String created = mockMvc.perform(createOrder("create-3", ORDER))
+                .andReturn().getResponse().getContentAsString();
+        Long id = JsonPath.parse(created).read("$.id", Long.class);
+
+        MvcResult started = mockMvc.perform(pay(id, "pay-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAID"));
+
+        mockMvc.perform(pay(id, "pay-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.status").value("PAID"));
+    }
+
+    @Test
+    void failedRequest_shouldReleaseKeyForRetry() throws Exception {
+        mockMvc.perform(post("/api/orders/999999/place").header(IdempotencyFilter.HEADER, "place-1"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/orders/999999/place").header(IdempotencyFilter.HEADER, "place-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void claim_keyOnlyInDatabase_shouldReplayStoredResponse() throws Exception {
+        mockMvc.perform(createOrder("create-4", ORDER)).andExpect(status().isCreated());
+
+        // A fresh store has an empty cache, as after a restart or on another instance
+        IdempotencyStore restarted = store(Duration.ofMinutes(1));
+
+        IdempotencyStore.Claim claim = restarted.claim("create-4", "any");
+        assertEquals(IdempotencyStore.Outcome.REPLAY, claim.outcome());
+        assertEquals(201, claim.response().status());
+    }
+
+    @Test
+    void claim_keyHeldByAnotherInstance_shouldBeInProgressUntilReleased() {
+        IdempotencyStore instance = store(Duration.ofMinutes(1));
+        IdempotencyStore other = store(Duration.ofMinutes(1));
+
+        IdempotencyStore.Claim claim = instance.claim("shared-1", "fingerprint");
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, claim.outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, other.claim("shared-1", "fingerprint").outcome());
+
+        instance.release("shared-1", claim.claimedAt());
+        IdempotencyStore.Claim retry = other.claim("shared-1", "fingerprint");
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, retry.outcome());
+        other.complete("shared-1", retry.claimedAt(), new StoredResponse("fingerprint", 200, null, new byte[0]));
+        assertEquals(IdempotencyStore.Outcome.REPLAY, instance.claim("shared-1", "fingerprint").outcome());
+    }
+
+    @Test
+    void claim_concurrentFirstClaims_shouldAcquireOnce() throws Exception {
+        int callers = 8;
+        CyclicBarrier start = new CyclicBarrier(callers);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<IdempotencyStore.Outcome>> outcomes = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                IdempotencyStore instance = store(Duration.ofMinutes(1));
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    return instance.claim("shared-4", "fingerprint").outcome();
+                }));
+            }
+            int acquired = 0;
+            for (Future<IdempotencyStore.Outcome> outcome : outcomes) {
+                if (outcome.get(10, TimeUnit.SECONDS) == IdempotencyStore.Outcome.ACQUIRED) {
+                    acquired++;
+                }
+            }
+            assertEquals(1, acquired);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void claim_abandonedClaim_shouldBeTakenOverOnce() throws InterruptedException {
+        IdempotencyStore abandoned = store(Duration.ofMillis(1));
+        IdempotencyStore first = store(Duration.ofMillis(1));
+        IdempotencyStore second = store(Duration.ofMinutes(1));
+
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, abandoned.claim("shared-2", "fingerprint").outcome());
+        Thread.sleep(5);
+
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, first.claim("shared-2", "fingerprint").outcome());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, second.claim("shared-2", "fingerprint").outcome());
+    }
+
+    @Test
+    void completeAndRelease_claimTakenOver_shouldLeaveTheNewClaimAlone() throws InterruptedException {
+        IdempotencyStore abandoned = store(Duration.ofMillis(1));
+        IdempotencyStore taker = store(Duration.ofMillis(1));
+        IdempotencyStore other = store(Duration.ofMinutes(1));
+
+        IdempotencyStore.Claim stale = abandoned.claim("shared-3", "fingerprint");
+        Thread.sleep(5);
+        IdempotencyStore.Claim current = taker.claim("shared-3", "fingerprint");
+        assertEquals(IdempotencyStore.Outcome.ACQUIRED, current.outcome());
+
+        // The slow request that lost its claim finishes after all
+        abandoned.complete("shared-3", stale.claimedAt(), new StoredResponse("fingerprint", 200, null, new byte[0]));
+        abandoned.release("shared-3", stale.claimedAt());
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, other.claim("shared-3", "fingerprint").outcome());
+
+        taker.complete("shared-3", current.claimedAt(), new StoredResponse("fingerprint", 201, null, new byte[0]));
+        IdempotencyStore.Claim replay = other.claim("shared-3", "fingerprint");
+        assertEquals(IdempotencyStore.Outcome.REPLAY, replay.outcome());
+        assertEquals(201, replay.response().status());
+    }
+
+    private IdempotencyStore store(Duration inFlightTimeout) {
+        return new IdempotencyStore(recordRepository, 100, Duration.ofHours(1), inFlightTimeout,
+                new SimpleMeterRegistry());
+    }
+
+    private static RequestBuilder createOrder(String key, String body) {
+        return post("/api/orders").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content(body);
+    }
+
+    private static RequestBuilder pay(Long id, String key) {
+        return post("/api/orders/" + id + "/pay").header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"paymentMethod\": \"creditcard\"}");
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.inventory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "inventory.hot.products=Headphones",
+        "inventory.hot.shards=4", "inventory.hot.allotment=10", "inventory.hot.flush-interval-ms=3600000"})
+class HotStockCountersTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private HotStockCounters hotStockCounters;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void enableConfigured_shouldMakeTheListedProductsHot() {
+        assertTrue(hotStockCounters.isHot(productRepository.findByName("Headphones").orElseThrow().getId()));
+    }
+
+    @Test
+    void hotProduct_shouldSellFromAnAllotmentWithdrawnFromTheRow() {
+        Long productId = hotProduct("Hot-Allotment", 50);
+
+        Order order = new Order("customer", Money.of("2.0"));
+        order.addItem(new OrderItem("Hot-Allotment", 2, Money.of("1.0")));
+        Long orderId = orderService.createOrder(order).getId();
+
+        assertEquals(40, stock(productId));
+        assertEquals(8, hotStockCounters.available(productId));
+
+        orderService.cancelOrder(orderId);
+        assertEquals(40, stock(productId));
+        assertEquals(10, hotStockCounters.available(productId));
+
+        hotStockCounters.disable(productId);
+        assertEquals(50, stock(productId));
+    }
+
+    @Test
+    void tryTake_rolledBack_shouldLeaveTheRowAndCountersAsTheyWere() {
+        Long productId = hotProduct("Hot-Rollback", 50);
+
+        // The first take withdraws an allotment, which the rollback puts back in the row
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(hotStockCounters.tryTake(productId, 3));
+            status.setRollbackOnly();
+        });
+        assertEquals(50, stock(productId));
+        assertEquals(0, hotStockCounters.available(productId));
+
+        assertTrue(hotStockCounters.tryTake(productId, 3));
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(hotStockCounters.tryTake(productId, 2));
+            status.setRollbackOnly();
+        });
+        assertEquals(40, stock(productId));
+        assertEquals(7, hotStockCounters.available(productId));
+    }
+
+    @Test
+    void flush_shouldReturnUnitsBeyondOneAllotmentToTheRow() {
+        Long productId = hotProduct("Hot-Flush", 50);
+        assertTrue(hotStockCounters.tryTake(productId, 1));
+        hotStockCounters.give(productId, 5);
+
+        hotStockCounters.flush();
+
+        assertEquals(10, hotStockCounters.available(productId));
+        assertEquals(44, stock(productId));
+    }
+
+    @Test
+    void tryTake_twoInstancesSharingTheRow_shouldNeverSellMoreThanTheRowHeld() {
+        Long productId = hotProduct("Hot-Shared", 25);
+        HotStockCounters otherInstance = new HotStockCounters(productRepository, transactionTemplate,
+                new SimpleMeterRegistry(), List.of(), 2, 10);
+        otherInstance.enable(productRepository.findById(productId).orElseThrow());
+
+        // Take turns, one unit at a time, until neither instance can sell
+        int[] sold = new int[2];
+        boolean selling = true;
+        while (selling) {
+            selling = false;
+            if (hotStockCounters.tryTake(productId, 1)) {
+                sold[0]++;
+                selling = true;
+            }
+            if (otherInstance.tryTake(productId, 1)) {
+                sold[1]++;
+                selling = true;
+            }
+        }
+
+        assertEquals(25, sold[0] + sold[1]);
+        assertTrue(sold[0] > 0 && sold[1] > 0);
+        assertEquals(0, stock(productId));
+    }
+
+    private Long hotProduct(String name, int stock) {
+        Product product = productRepository.save(new Product(name, Money.of("1.0"), stock));
+        hotStockCounters.enable(product);
+        return product.getId();
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStockTest {
+
+    @Test
+    void tryTake_concurrentTakers_shouldNeverOversell() throws Exception {
+        ShardedStock stock = new ShardedStock(1000, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger taken = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 200; j++) {
+                    if (stock.tryTake(1)) {
+                        taken.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1000, taken.get() + stock.available());
+        assertTrue(taken.get() <= 1000);
+    }
+
+    @Test
+    void tryTake_requestLargerThanAnyShard_shouldGatherAcrossShards() {
+        ShardedStock stock = new ShardedStock(10, 4);
+
+        assertTrue(stock.tryTake(9));
+        assertEquals(1, stock.available());
+    }
+
+    @Test
+    void tryTake_insufficientTotal_shouldTakeNothing() {
+        ShardedStock stock = new ShardedStock(10, 4);
+
+        assertFalse(stock.tryTake(11));
+        assertEquals(10, stock.available());
+
+        stock.give(5);
+        assertTrue(stock.tryTake(15));
+        assertEquals(0, stock.available());
+    }
+
+    @Test
+    void drain_shouldEmptyEveryShard() {
+        ShardedStock stock = new ShardedStock(10, 4);
+        stock.tryTake(3);
+
+        assertEquals(7, stock.drain());
+        assertEquals(0, stock.available());
+        assertFalse(stock.tryTake(1));
+    }
+}
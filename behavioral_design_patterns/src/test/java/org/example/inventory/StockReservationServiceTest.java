@@ -0,0 +1,133 @@
+package org.example.inventory;
+
+import org.example.dto.BatchOrderResult;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.repository.StockReservationRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "inventory.reservations.ttl=300ms",
+        "inventory.reservations.sweep-interval-ms=50"})
+class StockReservationServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationLedger ledger;
+
+    @Test
+    void createOrder_shouldHoldStockUntilPlaced() {
+        Product product = productRepository.save(new Product("Held", Money.of("5.0"), 5));
+
+        Long orderId = orderService.createOrder(order("Held", 2)).getId();
+        assertEquals(3, stock("Held"));
+        assertEquals(1, reservationRepository.findByOrderId(orderId).size());
+        assertEquals(2, ledger.heldUnits(product.getId()));
+
+        orderService.placeOrder(orderId);
+        assertEquals(3, stock("Held"));
+        assertTrue(reservationRepository.findByOrderId(orderId).isEmpty());
+        assertEquals(0, ledger.heldUnits(product.getId()));
+    }
+
+    @Test
+    void cancelOrder_pendingOrder_shouldReleaseHold() {
+        productRepository.save(new Product("Released", Money.of("5.0"), 4));
+
+        Long orderId = orderService.createOrder(order("Released", 3)).getId();
+        assertEquals(1, stock("Released"));
+
+        orderService.cancelOrder(orderId);
+        assertEquals(4, stock("Released"));
+        assertTrue(reservationRepository.findByOrderId(orderId).isEmpty());
+    }
+
+    @Test
+    void sweeper_expiredHold_shouldReturnStockAndPlacementTakesItAgain() throws InterruptedException {
+        productRepository.save(new Product("Expiring", Money.of("5.0"), 2));
+
+        Long orderId = orderService.createOrder(order("Expiring", 2)).getId();
+        assertEquals(0, stock("Expiring"));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stock("Expiring") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, stock("Expiring"));
+        assertTrue(reservationRepository.findByOrderId(orderId).isEmpty());
+
+        assertEquals(OrderStatus.PLACED, orderService.placeOrder(orderId).getStatus());
+        assertEquals(0, stock("Expiring"));
+    }
+
+    @Test
+    void createOrders_ordersCompetingForLastUnit_shouldCreateOneAndRejectTheOther() {
+        productRepository.save(new Product("Contested", Money.of("5.0"), 1));
+
+        List<BatchOrderResult> results = orderService.createOrders(List.of(order("Contested", 1), order("Contested", 1)));
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).created());
+        assertFalse(results.get(1).created());
+        assertTrue(results.get(1).error().contains("Insufficient stock"));
+        assertEquals(0, stock("Contested"));
+        assertEquals(1, reservationRepository.findByOrderId(results.get(0).orderId()).size());
+    }
+
+    @Test
+    void createOrders_batchesTakingProductsInOppositeOrders_shouldNotDeadlock() throws Exception {
+        productRepository.save(new Product("Crossed-1", Money.of("5.0"), 1000));
+        productRepository.save(new Product("Crossed-2", Money.of("5.0"), 1000));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<List<BatchOrderResult>> forward = executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrders(List.of(order("Crossed-1", 1), order("Crossed-2", 1)));
+                });
+                Future<List<BatchOrderResult>> backward = executor.submit(() -> {
+                    start.await();
+                    return orderService.createOrders(List.of(order("Crossed-2", 1), order("Crossed-1", 1)));
+                });
+                assertTrue(forward.get(10, TimeUnit.SECONDS).stream().allMatch(BatchOrderResult::created));
+                assertTrue(backward.get(10, TimeUnit.SECONDS).stream().allMatch(BatchOrderResult::created));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int stock(String name) {
+        return productRepository.findByName(name).orElseThrow().getStockQuantity();
+    }
+
+    private static Order order(String productName, int quantity) {
+        Order order = new Order("customer", Money.of("5.0").times(quantity));
+        order.addItem(new OrderItem(productName, quantity, Money.of("5.0")));
+        return order;
+    }
+}
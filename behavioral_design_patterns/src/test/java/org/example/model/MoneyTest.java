@@ -0,0 +1,44 @@
+package org.example.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_shouldParseExactlyAndRejectExtraDecimals() {
+        assertEquals(14999, Money.of("149.99").minorUnits());
+        assertEquals(1000, Money.of("10").minorUnits());
+        assertThrows(IllegalArgumentException.class, () -> Money.of("0.001"));
+    }
+
+    @Test
+    void itemsTotal_manySmallAmounts_shouldHaveNoRoundingError() {
+        Order order = new Order("alice", Money.ZERO);
+        for (int i = 0; i < 1000; i++) {
+            order.addItem(new OrderItem("Cent", 3, Money.of("0.10")));
+        }
+
+        assertEquals(Money.of("300.00"), order.itemsTotal());
+    }
+
+    @Test
+    void arithmetic_overflowOrMixedCurrencies_shouldThrow() {
+        Money euros = new Money(Currency.getInstance("EUR"), 100);
+
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).times(2));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMinor(100).plus(euros));
+    }
+
+    @Test
+    void json_shouldRoundTripAsPlainDecimalNumber() throws Exception {
+        assertEquals("149.90", objectMapper.writeValueAsString(Money.of("149.9")));
+        assertEquals(Money.of("149.99"), objectMapper.readValue("149.99", Money.class));
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
+import org.example.model.SpilledNotification;
+import org.example.repository.SpilledNotificationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AsyncObserverDispatcherTest {
+
+    @Test
+    void enqueue_blockPolicy_shouldDeliverEverythingInOrder() {
+        RecordingObserver observer = new RecordingObserver(null);
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(observer, 2, OverflowPolicy.BLOCK,
+                null, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 50; i++) {
+            dispatcher.enqueue(event(i));
+        }
+        dispatcher.shutdown(5000);
+
+        assertEquals(50, observer.received.size());
+        assertEquals("Order placed successfully: 0", observer.received.get(0));
+        assertEquals("Order placed successfully: 49", observer.received.get(49));
+    }
+
+    @Test
+    void enqueue_dropOldestPolicy_shouldNotBlockPublisher() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver observer = new RecordingObserver(release);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(observer, 2, OverflowPolicy.DROP_OLDEST,
+                null, registry);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue(event(i));
+        }
+        release.countDown();
+        dispatcher.shutdown(5000);
+
+        assertTrue(observer.received.size() < 10);
+        assertTrue(observer.received.contains("Order placed successfully: 9"));
+        assertTrue(registry.counter("notifications.dropped", "observer", "RecordingObserver").count() > 0);
+    }
+
+    @Test
+    void enqueue_spillPolicy_shouldDeliverQueuedThenSpilledEventsInOrder() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingObserver observer = new RecordingObserver(release);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncObserverDispatcher dispatcher = new AsyncObserverDispatcher(observer, 2, OverflowPolicy.SPILL,
+                inMemorySpillRepository(), registry);
+
+        for (int i = 0; i < 20; i++) {
+            dispatcher.enqueue(event(i));
+        }
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (observer.received.size() < 20 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        dispatcher.shutdown(5000);
+
+        assertTrue(registry.counter("notifications.spilled", "observer", "RecordingObserver").count() > 0);
+        assertEquals(20, observer.received.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Order placed successfully: " + i, observer.received.get(i));
+        }
+    }
+
+    @Test
+    void constructor_spillWithoutRepository_shouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncObserverDispatcher(
+                new RecordingObserver(null), 2, OverflowPolicy.SPILL, null, new SimpleMeterRegistry()));
+    }
+
+    /**
+     * Keeps spilled rows in a list, in the order they were saved.
+     */
+    @SuppressWarnings("unchecked")
+    private static SpilledNotificationRepository inMemorySpillRepository() {
+        List<SpilledNotification> rows = new ArrayList<>();
+        SpilledNotificationRepository repository = mock(SpilledNotificationRepository.class);
+        when(repository.save(any(SpilledNotification.class))).thenAnswer(invocation -> {
+            synchronized (rows) {
+                rows.add(invocation.getArgument(0));
+            }
+            return invocation.getArgument(0);
+        });
+        when(repository.findTop100ByObserverOrderByIdAsc(anyString())).thenAnswer(invocation -> {
+            synchronized (rows) {
+                return new ArrayList<>(rows.subList(0, Math.min(100, rows.size())));
+            }
+        });
+        when(repository.existsByObserver(anyString())).thenAnswer(invocation -> {
+            synchronized (rows) {
+                return !rows.isEmpty();
+            }
+        });
+        doAnswer(invocation -> {
+            // Batches are always read from the head of the list
+            synchronized (rows) {
+                rows.subList(0, ((List<SpilledNotification>) invocation.getArgument(0)).size()).clear();
+            }
+            return null;
+        }).when(repository).deleteAllInBatch(any());
+        return repository;
+    }
+
+    private static OrderEvent event(long orderId) {
+        return new OrderEvent(OrderEventType.PLACED, orderId, OrderStatus.PENDING, OrderStatus.PLACED, Money.of("10.0"), 0L);
+    }
+
+    private static class RecordingObserver implements Observer {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch release;
+
+        RecordingObserver(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void update(String message) {
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            received.add(message);
+        }
+    }
+}
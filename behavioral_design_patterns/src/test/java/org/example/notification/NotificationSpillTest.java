@@ -0,0 +1,88 @@
+package org.example.notification;
+
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
+import org.example.model.SpilledNotification;
+import org.example.repository.SpilledNotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"notifications.outbox.enabled=false", "notifications.dispatch.overflow-policy=SPILL"})
+class NotificationSpillTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private SpilledNotificationRepository spillRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final RecordingObserver observer = new RecordingObserver();
+
+    @AfterEach
+    void tearDown() {
+        notificationService.removeObserver(observer);
+        spillRepository.deleteAll();
+    }
+
+    @Test
+    void save_insideAnotherTransaction_shouldBeVisibleBeforeItCommits() {
+        boolean visible = transactionTemplate.execute(status -> {
+            spillRepository.save(new SpilledNotification("SpillProbe", event(1)));
+            // Another thread, so another connection: it only sees committed rows
+            return CompletableFuture.supplyAsync(() -> spillRepository.existsByObserver("SpillProbe"))
+                    .orTimeout(5, TimeUnit.SECONDS).join();
+        });
+
+        assertTrue(visible);
+    }
+
+    @Test
+    void notifyObservers_rolledBackTransaction_shouldNotNotify() throws InterruptedException {
+        notificationService.addObserver(observer);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.notifyObservers(event(1));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> notificationService.notifyObservers(event(2)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (observer.received.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        assertEquals(List.of(2L), observer.received);
+    }
+
+    private static OrderEvent event(long orderId) {
+        return new OrderEvent(OrderEventType.PLACED, orderId, OrderStatus.PENDING, OrderStatus.PLACED, Money.of("10.0"), 0L);
+    }
+
+    private static class RecordingObserver implements Observer {
+        final List<Long> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void update(String message) {
+        }
+
+        @Override
+        public void update(OrderEvent event) {
+            received.add(event.orderId());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.notification;
+
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
+import org.example.model.OutboxEvent;
+import org.example.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Relay retries. Runs with the default async dispatch mode: the relay calls the observers
+ * itself, so an observer's failure reaches it even then.
+ * Uses its own database so the relays of other cached test contexts cannot take its events.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-retry",
+        "spring.jpa.show-sql=false",
+        "notifications.outbox.enabled=true",
+        "notifications.outbox.poll-interval-ms=20",
+        "notifications.outbox.retry-backoff-ms=20",
+        "notifications.outbox.max-retry-backoff-ms=100",
+        "notifications.outbox.max-attempts=1000"})
+class OutboxRelayRetryTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FlakyObserver flakyObserver;
+
+    @Test
+    void relay_failingEvent_shouldOnlyHoldBackItsOwnOrder() throws InterruptedException {
+        flakyObserver.failingOrderId = 5L;
+        publish(event(5L, OrderStatus.PLACED));
+        publish(event(6L, OrderStatus.PLACED));
+        publish(event(5L, OrderStatus.SHIPPED));
+
+        awaitTrue(() -> flakyObserver.received.contains("6:PLACED"));
+        awaitTrue(() -> outboxEventRepository.findAll().stream().anyMatch(event -> event.getAttempts() > 1));
+        List<OutboxEvent> heldBack = outboxEventRepository.findAll();
+        assertEquals(2, heldBack.size());
+        assertTrue(heldBack.stream().allMatch(event -> event.getEvent().orderId() == 5L));
+        assertFalse(flakyObserver.received.contains("5:SHIPPED"));
+
+        flakyObserver.failingOrderId = null;
+        awaitTrue(() -> flakyObserver.received.contains("5:SHIPPED"));
+        List<String> received = flakyObserver.received;
+        assertTrue(received.indexOf("5:PLACED") < received.indexOf("5:SHIPPED"));
+        awaitTrue(() -> outboxEventRepository.count() == 0);
+    }
+
+    private void publish(OrderEvent event) {
+        transactionTemplate.executeWithoutResult(status -> notificationService.publish(event));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static OrderEvent event(long orderId, OrderStatus newStatus) {
+        return new OrderEvent(OrderEventType.STATUS_CHANGED, orderId, OrderStatus.PENDING, newStatus, Money.of("5.0"), 0L);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        FlakyObserver flakyObserver() {
+            return new FlakyObserver();
+        }
+    }
+
+    static class FlakyObserver implements Observer {
+        final List<String> received = new CopyOnWriteArrayList<>();
+        volatile Long failingOrderId;
+
+        @Override
+        public void update(String message) {
+        }
+
+        @Override
+        public void update(OrderEvent event) {
+            if (event.orderId().equals(failingOrderId)) {
+                throw new IllegalStateException("Observer unavailable for order " + event.orderId());
+            }
+            received.add(event.orderId() + ":" + event.newStatus());
+        }
+
+        @Override
+        public Set<OrderEventType> subscribedEvents() {
+            return EnumSet.of(OrderEventType.STATUS_CHANGED);
+        }
+    }
+}
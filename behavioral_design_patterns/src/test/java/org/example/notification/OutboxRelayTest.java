@@ -0,0 +1,99 @@
+package org.example.notification;
+
+import org.example.model.Money;
+import org.example.model.OrderEvent;
+import org.example.model.OrderEventType;
+import org.example.model.OrderStatus;
+import org.example.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "notifications.outbox.enabled=true"})
+class OutboxRelayTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RecordingObserver recordingObserver;
+
+    @Test
+    void publish_shouldOnlyDeliverCommittedEventsInOrder() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> notificationService.publish(event(1L, OrderStatus.PLACED)));
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationService.publish(event(2L, OrderStatus.PLACED));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> notificationService.publish(event(1L, OrderStatus.SHIPPED)));
+
+        // Relayed events reach the observer through its async dispatcher, possibly before the
+        // relay has deleted them, so wait for both
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((!recordingObserver.received.contains("1:SHIPPED") || outboxEventRepository.count() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        List<String> received = recordingObserver.received;
+        assertTrue(received.contains("1:PLACED"));
+        assertTrue(received.indexOf("1:PLACED") < received.indexOf("1:SHIPPED"));
+        assertFalse(received.contains("2:PLACED"));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void notifyObservers_shouldSkipObserversNotSubscribedToType() {
+        transactionTemplate.executeWithoutResult(status -> notificationService.notifyObserversNow(
+                new OrderEvent(OrderEventType.CREATED, 3L, null, OrderStatus.PENDING, Money.of("5.0"), 0L)));
+
+        assertFalse(recordingObserver.received.contains("3:PENDING"));
+    }
+
+    private static OrderEvent event(long orderId, OrderStatus newStatus) {
+        return new OrderEvent(OrderEventType.STATUS_CHANGED, orderId, OrderStatus.PENDING, newStatus, Money.of("5.0"), 0L);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        RecordingObserver recordingObserver() {
+            return new RecordingObserver();
+        }
+    }
+
+    static class RecordingObserver implements Observer {
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void update(String message) {
+            received.add(message);
+        }
+
+        @Override
+        public void update(OrderEvent event) {
+            received.add(event.orderId() + ":" + event.newStatus());
+        }
+
+        @Override
+        public Set<OrderEventType> subscribedEvents() {
+            return EnumSet.of(OrderEventType.STATUS_CHANGED);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.payment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.model.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentProcessorTest {
+
+    private PaymentProcessor processor;
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    @Test
+    void pay_repeatedFailures_shouldOpenCircuitAndRejectWithoutCallingGateway() {
+        StubStrategy failing = new StubStrategy(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("gateway down")));
+        processor = processor(failing, 1000, 10);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(PaymentResult.Status.UNKNOWN, processor.pay("test", "ref-" + i, Money.of("10.0")).join().status());
+        }
+        assertEquals(PaymentCircuitBreaker.State.OPEN, processor.circuitState("test"));
+
+        assertEquals(PaymentResult.Status.REJECTED, processor.pay("test", "ref-x", Money.of("10.0")).join().status());
+        assertEquals(3, failing.calls.get());
+    }
+
+    @Test
+    void pay_bulkheadFull_shouldRejectExtraCalls() {
+        CompletableFuture<PaymentResult> inFlight = new CompletableFuture<>();
+        processor = processor(new StubStrategy(() -> inFlight), 5000, 1);
+
+        CompletableFuture<PaymentResult> first = processor.pay("test", "ref-1", Money.of("10.0"));
+        assertEquals(PaymentResult.Status.REJECTED, processor.pay("test", "ref-2", Money.of("10.0")).join().status());
+
+        inFlight.complete(PaymentResult.approved("tx-1"));
+        assertTrue(first.join().isApproved());
+        assertTrue(processor.pay("test", "ref-3", Money.of("10.0")).join().isApproved());
+    }
+
+    @Test
+    void pay_slowGateway_shouldTimeOutAsUnknown() {
+        processor = processor(new StubStrategy(CompletableFuture::new), 100, 10);
+
+        long start = System.currentTimeMillis();
+        PaymentResult result = processor.pay("test", "ref-1", Money.of("10.0")).join();
+
+        assertEquals(PaymentResult.Status.UNKNOWN, result.status());
+        assertTrue(System.currentTimeMillis() - start < 2000);
+    }
+
+    @Test
+    void pay_unknownMethodOrInvalidAmount_shouldThrow() {
+        processor = processor(new StubStrategy(CompletableFuture::new), 100, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> processor.pay("cash", "ref-1", Money.of("10.0")));
+        assertThrows(IllegalArgumentException.class, () -> processor.pay("test", "ref-1", Money.ZERO));
+    }
+
+    private static PaymentProcessor processor(PaymentStrategy strategy, long timeoutMs, int maxConcurrentCalls) {
+        return new PaymentProcessor(Map.of("test", strategy), timeoutMs, maxConcurrentCalls, 3, 60_000, 1,
+                new SimpleMeterRegistry(), new MockEnvironment());
+    }
+
+    private static class StubStrategy implements PaymentStrategy {
+        private final Supplier<CompletableFuture<PaymentResult>> results;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        StubStrategy(Supplier<CompletableFuture<PaymentResult>> results) {
+            this.results = results;
+        }
+
+        @Override
+        public void pay(Money amount) {
+            payAsync("sync", amount).join();
+        }
+
+        @Override
+        public CompletableFuture<PaymentResult> payAsync(String reference, Money amount) {
+            calls.incrementAndGet();
+            return results.get();
+        }
+    }
+}
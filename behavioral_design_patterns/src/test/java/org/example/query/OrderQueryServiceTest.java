@@ -0,0 +1,104 @@
+package org.example.query;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.OrderSummary;
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.example.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"orders.read.stream-page-size=2", "orders.read.stream-idle-timeout=1s",
+        "notifications.outbox.enabled=false"})
+class OrderQueryServiceTest {
+
+    private static final int ORDERS = 5;
+    private static final String PRODUCT = "query-headphones";
+
+    @Autowired
+    private OrderQueryService orderQueryService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long afterId;
+
+    @BeforeEach
+    void setUp() {
+        // The context is shared with other read tests, so orders draw on a product of their own
+        if (productRepository.findByName(PRODUCT).isEmpty()) {
+            productRepository.save(new Product(PRODUCT, Money.of("10.00"), 1_000_000));
+        }
+        afterId = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order("query-customer", Money.of("10.00"));
+            order.addItem(new OrderItem(PRODUCT, 1, Money.of("10.00")));
+            long id = orderService.createOrder(order).getId();
+            if (afterId == 0) {
+                afterId = id - 1;
+            }
+        }
+    }
+
+    @Test
+    void streamByStatus_shouldQueryTheNextPageOnlyWhenItIsRequested() {
+        long before = statusQueries();
+        List<OrderSummary> first = orderQueryService.streamByStatus(OrderStatus.PENDING, afterId)
+                .take(1).collectList().block();
+        assertEquals(1, first.size());
+        assertEquals(1, statusQueries() - before);
+
+        before = statusQueries();
+        orderQueryService.streamByStatus(OrderStatus.PENDING, afterId).take(3).collectList().block();
+        assertEquals(2, statusQueries() - before);
+    }
+
+    @Test
+    void streamByStatus_shouldReturnEveryOrderInIdOrder() {
+        List<OrderSummary> orders = orderQueryService.streamByStatus(OrderStatus.PENDING, afterId)
+                .collectList().block();
+
+        assertEquals(ORDERS, orders.size());
+        for (int i = 1; i < orders.size(); i++) {
+            assertTrue(orders.get(i - 1).id() < orders.get(i).id());
+        }
+    }
+
+    @Test
+    void streamByStatus_consumerStalledPastIdleTimeout_shouldFailWithTimeout() {
+        Flux<OrderSummary> stalled = orderQueryService.streamByStatus(OrderStatus.PENDING, afterId)
+                .delayElements(Duration.ofMillis(1500));
+
+        RuntimeException e = assertThrows(RuntimeException.class, stalled::blockLast);
+        assertInstanceOf(TimeoutException.class, Exceptions.unwrap(e));
+    }
+
+    @Test
+    void findById_missingOrder_shouldCompleteEmpty() {
+        assertNull(orderQueryService.findById(999_999).block());
+    }
+
+    private long statusQueries() {
+        return meterRegistry.get("orders.read.query").tag("query", "by-status").timer().count();
+    }
+}
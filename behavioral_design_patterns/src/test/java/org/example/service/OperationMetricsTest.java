@@ -0,0 +1,46 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OperationMetrics metrics = new OperationMetrics(meterRegistry);
+
+    @Test
+    void record_shouldTagEachCallWithItsOutcome() {
+        assertEquals("ok", metrics.record("placeOrder", () -> "ok"));
+        assertThrows(IllegalStateException.class, () -> metrics.record("placeOrder", () -> {
+            throw new IllegalStateException("Order is not pending");
+        }));
+        assertThrows(NullPointerException.class, () -> metrics.record("placeOrder", () -> {
+            throw new NullPointerException();
+        }));
+
+        assertEquals(1, count("placeOrder", "success"));
+        assertEquals(1, count("placeOrder", "rejected"));
+        assertEquals(1, count("placeOrder", "error"));
+    }
+
+    @Test
+    void recordAsync_shouldStopTheTimerWhenTheFutureCompletes() {
+        CompletableFuture<String> gateway = new CompletableFuture<>();
+
+        CompletableFuture<String> result = metrics.recordAsync("processPayment", () -> gateway);
+        assertEquals(0, count("processPayment", "rejected"));
+        gateway.completeExceptionally(new IllegalStateException("Payment declined"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, count("processPayment", "rejected"));
+    }
+
+    private long count(String operation, String outcome) {
+        var timer = meterRegistry.find("orders.operation").tags("operation", operation, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
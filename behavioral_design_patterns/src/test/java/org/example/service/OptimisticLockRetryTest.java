@@ -0,0 +1,59 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryTest {
+
+    @Test
+    void execute_conflictThenSuccess_shouldRetryAndCount() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OptimisticLockRetry retry = new OptimisticLockRetry(3, 1, 2, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("placeOrder", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Order", 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, registry.counter("orders.optimistic_lock.retries", "operation", "placeOrder").count());
+        assertEquals(2.0, registry.counter("orders.optimistic_lock.conflicts", "operation", "placeOrder").count());
+    }
+
+    @Test
+    void execute_alwaysConflicting_shouldGiveUpAfterMaxAttempts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OptimisticLockRetry retry = new OptimisticLockRetry(4, 0, 0, registry);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("cancelOrder", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Order", 1L);
+        }));
+
+        assertEquals(4, calls.get());
+        assertEquals(1.0, registry.counter("orders.optimistic_lock.exhausted", "operation", "cancelOrder").count());
+    }
+
+    @Test
+    void execute_otherExceptions_shouldNotBeRetried() {
+        OptimisticLockRetry retry = new OptimisticLockRetry(5, 0, 0, new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute("placeOrder", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Insufficient stock");
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
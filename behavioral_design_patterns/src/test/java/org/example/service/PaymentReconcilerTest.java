@@ -0,0 +1,83 @@
+package org.example.service;
+
+import org.example.model.Money;
+import org.example.model.Order;
+import org.example.model.OrderItem;
+import org.example.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "payments.timeout-ms=1000",
+        "payments.gateway.latency-ms=1500", "payments.bulkhead.max-concurrent-calls=1",
+        "payments.circuit-breaker.failure-threshold=100", "payments.reconcile.stale-after-ms=0",
+        "payments.reconcile.interval-ms=3600000"})
+@AutoConfigureMockMvc
+class PaymentReconcilerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PaymentReconciler paymentReconciler;
+
+    @Test
+    void processPayment_unansweredGateway_shouldBeAcceptedAndSettledByReconciliation() throws Exception {
+        Long id = createOrder();
+
+        mockMvc.perform(asyncDispatch(pay(id)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PAYMENT_PENDING"));
+
+        // The gateway still completes the first charge; resending its reference picks that outcome up
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (orderStatus(id) == OrderStatus.PAYMENT_PENDING && System.currentTimeMillis() < deadline) {
+            paymentReconciler.reconcile();
+        }
+        assertEquals(OrderStatus.PAID, orderStatus(id));
+    }
+
+    @Test
+    void processPayment_bulkheadFull_shouldBeServiceUnavailableAndRestoreTheOrder() throws Exception {
+        Long inFlight = createOrder();
+        Long rejected = createOrder();
+
+        MvcResult first = pay(inFlight);
+        mockMvc.perform(asyncDispatch(pay(rejected)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        assertEquals(OrderStatus.PENDING, orderStatus(rejected));
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isAccepted());
+    }
+
+    private MvcResult pay(Long id) throws Exception {
+        return mockMvc.perform(post("/api/orders/" + id + "/pay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paymentMethod\":\"creditcard\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private Long createOrder() {
+        Order order = new Order("reconcile-customer", Money.of("149.99"));
+        order.addItem(new OrderItem("Headphones", 1, Money.of("149.99")));
+        return orderService.createOrder(order).getId();
+    }
+
+    private OrderStatus orderStatus(Long id) {
+        return orderService.getOrderById(id).orElseThrow().getStatus();
+    }
+}